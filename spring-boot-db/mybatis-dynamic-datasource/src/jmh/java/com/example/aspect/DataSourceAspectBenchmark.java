@@ -0,0 +1,89 @@
+package com.example.aspect;
+
+import com.example.annotation.DataSourceType;
+import com.example.domain.Customer;
+import com.example.mapper.CustomerMapper;
+import com.example.service.CustomerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataSourceAspect路由解析性能测试
+ *
+ * uncached* 为每次调用都查找注解、匹配方法名的原始开销，
+ * cached* 为按Method缓存路由结果后的开销
+ *
+ * 运行方式：mvn -Pbenchmark -pl spring-boot-db/mybatis-dynamic-datasource -am verify -DskipTests
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataSourceAspectBenchmark {
+
+    private DataSourceAspect aspect;
+
+    /**
+     * 带@DataSource注解的Service方法
+     */
+    private Method serviceMethod;
+
+    /**
+     * 按方法名判断数据源的Mapper方法
+     */
+    private Method mapperMethod;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        aspect = new DataSourceAspect();
+        serviceMethod = CustomerService.class.getMethod("createCustomer", Customer.class);
+        mapperMethod = CustomerMapper.class.getMethod("selectById", Long.class);
+    }
+
+    @Benchmark
+    public void uncachedServiceMethod(Blackhole blackhole) {
+        DataSourceType dataSourceType = aspect.determineDataSourceType(serviceMethod, serviceMethod.getName());
+        blackhole.consume(dataSourceType);
+        blackhole.consume(DataSourceType.getByMethodName(serviceMethod.getName()));
+    }
+
+    @Benchmark
+    public void cachedServiceMethod(Blackhole blackhole) {
+        blackhole.consume(aspect.resolveRouting(serviceMethod));
+    }
+
+    @Benchmark
+    public void uncachedMapperMethod(Blackhole blackhole) {
+        DataSourceType dataSourceType = aspect.determineDataSourceType(mapperMethod, mapperMethod.getName());
+        blackhole.consume(dataSourceType);
+        blackhole.consume(DataSourceType.getByMethodName(mapperMethod.getName()));
+    }
+
+    @Benchmark
+    public void cachedMapperMethod(Blackhole blackhole) {
+        blackhole.consume(aspect.resolveRouting(mapperMethod));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DataSourceAspectBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -10,11 +10,16 @@ import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 数据源切换AOP切面
@@ -22,7 +27,13 @@ import java.lang.reflect.Method;
  * 功能：
  * 1. 拦截带有@DataSource注解的方法
  * 2. 根据注解配置或方法名自动切换数据源
- * 3. 方法执行完成后自动清理数据源上下文
+ * 3. 方法执行完成后恢复外层方法的数据源，支持嵌套的@DataSource调用
+ * 4. 记录写操作时间，支持写后读主库的读写一致性路由
+ * 5. @Transactional(readOnly = true)的方法使用从库；事务开始后数据源固定，
+ *    事务内的嵌套调用沿用事务开始时的数据源
+ *
+ * 注解和方法名在运行期不会变化，每个Method的路由结果只解析一次并缓存，
+ * 后续调用直接读取缓存，避免每次查询都反射查找注解和匹配方法名前缀
  */
 @Aspect
 @Component
@@ -31,6 +42,11 @@ public class DataSourceAspect {
     
     private static final Logger logger = LoggerFactory.getLogger(DataSourceAspect.class);
     
+    /**
+     * 路由结果缓存，key为被拦截的方法
+     */
+    private final Map<Method, RoutingDecision> routingCache = new ConcurrentHashMap<>();
+    
     /**
      * 切点：拦截所有带有@DataSource注解的方法
      */
@@ -43,10 +59,18 @@ public class DataSourceAspect {
     @Pointcut("execution(* com.example.mapper..*.*(..))")
     public void mapperPointcut() {}
     
+    /**
+     * 切点：拦截所有带有@Transactional注解的方法和类
+     * 本切面先于事务切面执行，在事务获取连接之前确定数据源
+     */
+    @Pointcut("@annotation(org.springframework.transaction.annotation.Transactional)"
+            + " || @within(org.springframework.transaction.annotation.Transactional)")
+    public void transactionalPointcut() {}
+    
     /**
      * 环绕通知：处理数据源切换
      */
-    @Around("dataSourcePointcut() || mapperPointcut()")
+    @Around("dataSourcePointcut() || mapperPointcut() || transactionalPointcut()")
     public Object around(ProceedingJoinPoint point) throws Throwable {
         MethodSignature signature = (MethodSignature) point.getSignature();
         Method method = signature.getMethod();
@@ -55,10 +79,25 @@ public class DataSourceAspect {
         
         logger.debug("执行方法: {}.{}", className, methodName);
         
-        DataSourceType dataSourceType = determineDataSourceType(method, methodName);
+        RoutingDecision decision = resolveRouting(method);
+        DataSourceType dataSourceType = decision.dataSourceType;
+        
+        // 事务已经绑定了连接，事务内的调用沿用事务开始时的数据源
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            DataSourceType transactionType = DataSourceContextHolder.getDataSourceType();
+            if (transactionType != dataSourceType) {
+                logger.debug("事务进行中，{}.{} 沿用事务数据源: {}", className, methodName, transactionType.getValue());
+            }
+            dataSourceType = transactionType;
+        }
         
-        // 设置数据源
-        DataSourceContextHolder.setDataSourceType(dataSourceType);
+        // 进入数据源作用域
+        DataSourceContextHolder.push(dataSourceType);
+        
+        // 写操作记录时间戳，之后一段时间内的读请求路由到主库
+        if (decision.write && dataSourceType == DataSourceType.MASTER) {
+            DataSourceContextHolder.markWrite();
+        }
         
         try {
             logger.debug("开始执行方法: {}.{}, 使用数据源: {}", 
@@ -74,16 +113,32 @@ public class DataSourceAspect {
             logger.error("方法执行异常: {}.{}, 错误: {}", className, methodName, e.getMessage());
             throw e;
         } finally {
-            // 清理数据源上下文
-            DataSourceContextHolder.clearDataSourceType();
-            logger.debug("清理数据源上下文: {}.{}", className, methodName);
+            // 退出数据源作用域，恢复外层方法的数据源
+            DataSourceContextHolder.poll();
+            logger.debug("退出数据源作用域: {}.{}", className, methodName);
         }
     }
     
+    /**
+     * 获取方法的路由结果，首次调用时解析并缓存
+     */
+    RoutingDecision resolveRouting(Method method) {
+        RoutingDecision decision = routingCache.get(method);
+        if (decision == null) {
+            decision = routingCache.computeIfAbsent(method, key -> {
+                DataSourceType dataSourceType = determineDataSourceType(key, key.getName());
+                boolean write = dataSourceType == DataSourceType.MASTER
+                        && DataSourceType.getByMethodName(key.getName()) == DataSourceType.MASTER;
+                return new RoutingDecision(dataSourceType, write);
+            });
+        }
+        return decision;
+    }
+    
     /**
      * 确定数据源类型
      */
-    private DataSourceType determineDataSourceType(Method method, String methodName) {
+    DataSourceType determineDataSourceType(Method method, String methodName) {
         // 1. 首先检查方法级别的@DataSource注解
         DataSource dataSource = AnnotationUtils.findAnnotation(method, DataSource.class);
         
@@ -108,9 +163,40 @@ public class DataSourceAspect {
             }
         }
         
-        // 4. 如果没有注解，根据方法名自动判断
+        // 4. 只读事务使用从库
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(method, Transactional.class);
+        if (transactional == null) {
+            transactional = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), Transactional.class);
+        }
+        if (transactional != null && transactional.readOnly()) {
+            logger.debug("只读事务使用从库: 方法名={}", methodName);
+            return DataSourceType.SLAVE;
+        }
+        
+        // 5. 如果没有注解，根据方法名自动判断
         DataSourceType autoType = DataSourceType.getByMethodName(methodName);
         logger.debug("根据方法名自动判断数据源: 方法名={}, 数据源={}", methodName, autoType.getValue());
         return autoType;
     }
+    
+    /**
+     * 方法的路由结果
+     */
+    static final class RoutingDecision {
+        
+        /**
+         * 使用的数据源类型
+         */
+        final DataSourceType dataSourceType;
+        
+        /**
+         * 是否为写操作，写操作会记录时间用于读写一致性路由
+         */
+        final boolean write;
+        
+        RoutingDecision(DataSourceType dataSourceType, boolean write) {
+            this.dataSourceType = dataSourceType;
+            this.write = write;
+        }
+    }
 }
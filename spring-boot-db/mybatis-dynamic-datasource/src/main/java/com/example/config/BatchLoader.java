@@ -0,0 +1,271 @@
+package com.example.config;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 按主键的批量加载器
+ *
+ * 把短时间内到达的单条查询合并为一次 IN 查询：第一个key到达后等待window毫秒，
+ * 或累计到maxBatchSize个key时立即执行，查询结果按key分发给各个调用方。
+ * 相同key在同一批次中只查询一次；查不到的key返回null。
+ *
+ * 批量查询在加载器自己的线程中执行，不在调用方的事务中，需要另外获取连接；
+ * 以下情况直接在当前线程查询，不与其他调用方合并：
+ * - 调用方处于事务中（包括只读事务），需要读到本事务中未提交的修改，
+ *   也避免等待中的调用方占着事务连接、加载器线程拿不到连接而耗尽连接池
+ * - 请求携带最近的写时间戳，可能需要读主库
+ *
+ * 调用方最多等待timeout毫秒，数据库卡住或加载器线程被占满时不会无限期阻塞请求线程
+ *
+ * @param <K> 主键类型
+ * @param <V> 实体类型
+ */
+public class BatchLoader<K, V> implements AutoCloseable {
+
+    private final String name;
+
+    /**
+     * 按一组key查询实体，返回的实体数量和顺序不要求与key一致
+     */
+    private final Function<List<K>, List<V>> batchFunction;
+
+    private final Function<V, K> keyExtractor;
+
+    private final long window;
+
+    private final int maxBatchSize;
+
+    /**
+     * 调用方等待批量查询完成的最长时间（毫秒）
+     */
+    private final long timeout;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final ExecutorService executor;
+
+    private final Object lock = new Object();
+
+    /**
+     * 等待执行的key及其结果，受lock保护
+     */
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+
+    private boolean scheduled;
+
+    private final LongAdder batches = new LongAdder();
+
+    private final LongAdder keys = new LongAdder();
+
+    public BatchLoader(String name, Function<List<K>, List<V>> batchFunction, Function<V, K> keyExtractor,
+                       long window, int maxBatchSize, int threads, long timeout) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("批次大小必须大于0: " + name);
+        }
+        this.name = name;
+        this.batchFunction = batchFunction;
+        this.keyExtractor = keyExtractor;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.timeout = timeout;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads(name + "-batch-timer"));
+        this.executor = Executors.newFixedThreadPool(threads, daemonThreads(name + "-batch-loader"));
+    }
+
+    /**
+     * 加载单个key，与同一时间窗口内其他调用方的key合并查询
+     *
+     * @throws IllegalStateException 等待超过timeout毫秒
+     */
+    public V load(K key) {
+        if (!canBatch()) {
+            return loadDirectly(Collections.singletonList(key)).get(key);
+        }
+        return join(enqueue(key), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout));
+    }
+
+    /**
+     * 加载一组key，返回Map中只包含查到的key，超过maxBatchSize个key时分多批查询
+     *
+     * @throws IllegalStateException 所有批次合计等待超过timeout毫秒
+     */
+    public Map<K, V> loadAll(Collection<K> keys) {
+        if (!canBatch()) {
+            List<K> keyList = new ArrayList<>(keys);
+            Map<K, V> result = new LinkedHashMap<>();
+            for (int from = 0; from < keyList.size(); from += maxBatchSize) {
+                result.putAll(loadDirectly(keyList.subList(from, Math.min(from + maxBatchSize, keyList.size()))));
+            }
+            return result;
+        }
+        Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        for (K key : keys) {
+            futures.computeIfAbsent(key, this::enqueue);
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        Map<K, V> result = new LinkedHashMap<>();
+        futures.forEach((key, future) -> {
+            V value = join(future, deadline);
+            if (value != null) {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 已执行的批量查询次数
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * 批量查询的key总数，与getBatchCount之比为平均批次大小
+     */
+    public long getKeyCount() {
+        return keys.sum();
+    }
+
+    /**
+     * 关闭加载器，已排队的key仍会执行查询，不会让调用方一直等待
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        dispatchPending();
+        executor.shutdown();
+    }
+
+    private CompletableFuture<V> enqueue(K key) {
+        Map<K, CompletableFuture<V>> full = null;
+        CompletableFuture<V> future;
+        synchronized (lock) {
+            future = pending.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (pending.size() >= maxBatchSize) {
+                full = pending;
+                pending = new LinkedHashMap<>();
+            } else if (!scheduled) {
+                scheduled = true;
+                try {
+                    scheduler.schedule(this::dispatchPending, window, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    scheduled = false;
+                    full = pending;
+                    pending = new LinkedHashMap<>();
+                }
+            }
+        }
+        if (full != null) {
+            submit(full);
+        }
+        return future;
+    }
+
+    private void dispatchPending() {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (lock) {
+            scheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+        submit(batch);
+    }
+
+    private void submit(Map<K, CompletableFuture<V>> batch) {
+        try {
+            executor.execute(() -> dispatch(batch));
+        } catch (RejectedExecutionException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        try {
+            Map<K, V> result = loadDirectly(new ArrayList<>(batch.keySet()));
+            batches.increment();
+            keys.add(batch.size());
+            batch.forEach((key, future) -> future.complete(result.get(key)));
+        } catch (Throwable e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private Map<K, V> loadDirectly(List<K> keys) {
+        Map<K, V> result = new HashMap<>();
+        if (keys.isEmpty()) {
+            return result;
+        }
+        for (V value : batchFunction.apply(keys)) {
+            result.put(keyExtractor.apply(value), value);
+        }
+        return result;
+    }
+
+    private static boolean canBatch() {
+        if (DataSourceContextHolder.getLastWriteTime() > 0) {
+            return false;
+        }
+        return !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    /**
+     * 等待查询结果，最多等到deadline（System.nanoTime）
+     * 超时的key仍留在队列中，其他等待相同key的调用方照常拿到结果
+     */
+    private V join(CompletableFuture<V> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("等待批量查询超时: " + name, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待批量查询时线程被中断", e);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
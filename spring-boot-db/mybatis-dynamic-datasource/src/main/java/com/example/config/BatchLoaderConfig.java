@@ -0,0 +1,51 @@
+package com.example.config;
+
+import com.example.domain.Customer;
+import com.example.domain.Order;
+import com.example.mapper.CustomerMapper;
+import com.example.mapper.OrderMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 批量加载器配置类
+ *
+ * 并发的按ID查询客户、订单在batch-loader.window毫秒内合并为一次IN查询，
+ * 平均批次大小可由 batch.loader.keys / batch.loader.batches 计算
+ */
+@Configuration
+@EnableConfigurationProperties(BatchLoaderProperties.class)
+public class BatchLoaderConfig {
+
+    @Bean
+    public BatchLoader<Long, Customer> customerByIdLoader(CustomerMapper customerMapper,
+                                                          BatchLoaderProperties properties,
+                                                          MeterRegistry meterRegistry) {
+        return bind(new BatchLoader<>("customer", customerMapper::selectByIds, Customer::getId,
+                properties.getWindow(), properties.getMaxBatchSize(), properties.getThreads(),
+                properties.getTimeout()), meterRegistry);
+    }
+
+    @Bean
+    public BatchLoader<Long, Order> orderByIdLoader(OrderMapper orderMapper, BatchLoaderProperties properties,
+                                                    MeterRegistry meterRegistry) {
+        return bind(new BatchLoader<>("order", orderMapper::selectByIds, Order::getId,
+                properties.getWindow(), properties.getMaxBatchSize(), properties.getThreads(),
+                properties.getTimeout()), meterRegistry);
+    }
+
+    private static <K, V> BatchLoader<K, V> bind(BatchLoader<K, V> loader, MeterRegistry meterRegistry) {
+        FunctionCounter.builder("batch.loader.batches", loader, BatchLoader::getBatchCount)
+                .tag("name", loader.getName())
+                .description("已执行的批量查询次数")
+                .register(meterRegistry);
+        FunctionCounter.builder("batch.loader.keys", loader, BatchLoader::getKeyCount)
+                .tag("name", loader.getName())
+                .description("批量查询的ID总数")
+                .register(meterRegistry);
+        return loader;
+    }
+}
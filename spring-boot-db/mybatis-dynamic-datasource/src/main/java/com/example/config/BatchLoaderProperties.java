@@ -0,0 +1,63 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 批量加载器配置属性
+ * 绑定 batch-loader.* 配置
+ */
+@ConfigurationProperties(prefix = "batch-loader")
+public class BatchLoaderProperties {
+
+    /**
+     * 合并窗口（毫秒），第一个查询到达后最多等待这么久再执行批量查询
+     */
+    private long window = 2;
+
+    /**
+     * 每批最多的ID个数，达到后不等窗口结束立即执行
+     */
+    private int maxBatchSize = 100;
+
+    /**
+     * 每个加载器执行批量查询的线程数，同时占用的数据库连接不超过这个数
+     */
+    private int threads = 4;
+
+    /**
+     * 调用方等待批量查询完成的最长时间（毫秒）
+     */
+    private long timeout = 5000;
+
+    public long getWindow() {
+        return window;
+    }
+
+    public void setWindow(long window) {
+        this.window = window;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+}
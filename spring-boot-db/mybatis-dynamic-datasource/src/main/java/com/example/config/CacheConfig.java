@@ -0,0 +1,48 @@
+package com.example.config;
+
+import com.example.domain.Customer;
+import com.example.domain.Order;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 本地缓存配置类
+ *
+ * 单条查询（按ID、按客户编码、按订单号）读多写少，在Service前加一层本地缓存：
+ * - 按ID的缓存保存实体
+ * - 按编码/订单号的缓存只保存ID，再通过按ID的缓存读取实体，更新和删除时只需按ID失效
+ * - 缓存的实体直接返回给所有调用方，视为只读对象，更新时新建对象而不是修改查询结果
+ */
+@Configuration
+@EnableConfigurationProperties(LocalCacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public LocalCache<Long, Customer> customerCache(LocalCacheProperties properties, MeterRegistry meterRegistry) {
+        return createCache("customer", properties, meterRegistry);
+    }
+
+    @Bean
+    public LocalCache<String, Long> customerCodeCache(LocalCacheProperties properties, MeterRegistry meterRegistry) {
+        return createCache("customerCode", properties, meterRegistry);
+    }
+
+    @Bean
+    public LocalCache<Long, Order> orderCache(LocalCacheProperties properties, MeterRegistry meterRegistry) {
+        return createCache("order", properties, meterRegistry);
+    }
+
+    @Bean
+    public LocalCache<String, Long> orderNoCache(LocalCacheProperties properties, MeterRegistry meterRegistry) {
+        return createCache("orderNo", properties, meterRegistry);
+    }
+
+    private <K, V> LocalCache<K, V> createCache(String name, LocalCacheProperties properties,
+                                               MeterRegistry meterRegistry) {
+        LocalCache<K, V> cache = new LocalCache<>(name, properties.getMaximumSize(), properties.getTtl());
+        cache.bindTo(meterRegistry);
+        return cache;
+    }
+}
@@ -7,10 +7,14 @@ import org.mybatis.spring.SqlSessionFactoryBean;
 import org.mybatis.spring.SqlSessionTemplate;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.transaction.PlatformTransactionManager;
 
@@ -22,6 +26,7 @@ import java.util.Map;
  * 动态数据源配置类
  */
 @Configuration
+@EnableConfigurationProperties(DynamicDataSourceProperties.class)
 public class DataSourceConfig {
 
     /**
@@ -30,30 +35,27 @@ public class DataSourceConfig {
     @Bean(name = "masterDataSource")
     @ConfigurationProperties(prefix = "spring.datasource.master")
     public DataSource masterDataSource() {
-        return DataSourceBuilder.create()
-                .type(HikariDataSource.class)
-                .build();
-    }
-
-    /**
-     * 从数据源（读库）
-     */
-    @Bean(name = "slaveDataSource")
-    @ConfigurationProperties(prefix = "spring.datasource.slave")
-    public DataSource slaveDataSource() {
-        return DataSourceBuilder.create()
+        HikariDataSource masterDataSource = DataSourceBuilder.create()
                 .type(HikariDataSource.class)
                 .build();
+        // 连接池名称作为监控指标的pool标签
+        masterDataSource.setPoolName(DataSourceType.MASTER.getValue());
+        return masterDataSource;
     }
 
     /**
      * 动态数据源
      * 这是核心Bean，所有的数据库操作都会通过这个数据源
+     *
+     * 从库根据 dynamic.datasource.slave-weight 配置创建，每个从库名称对应
+     * spring.datasource.{name} 下的连接配置，读请求按权重在从库之间分配
      */
     @Bean(name = "dynamicDataSource")
     @Primary
-    public DataSource dynamicDataSource(@Qualifier("masterDataSource") DataSource masterDataSource,
-                                       @Qualifier("slaveDataSource") DataSource slaveDataSource) {
+    public DynamicDataSource dynamicDataSource(@Qualifier("masterDataSource") DataSource masterDataSource,
+                                               DynamicDataSourceProperties properties,
+                                               Environment environment,
+                                               DataSourceMetrics dataSourceMetrics) {
         DynamicDataSource dynamicDataSource = new DynamicDataSource();
         
         // 设置默认数据源
@@ -62,22 +64,58 @@ public class DataSourceConfig {
         // 设置数据源映射
         Map<Object, Object> targetDataSources = new HashMap<>();
         targetDataSources.put(DataSourceType.MASTER.getValue(), masterDataSource);
-        targetDataSources.put(DataSourceType.SLAVE.getValue(), slaveDataSource);
+        
+        // 按权重配置创建从库并注册到负载均衡器
+        Binder binder = Binder.get(environment);
+        SlaveLoadBalancer slaveLoadBalancer = new SlaveLoadBalancer();
+        for (Map.Entry<String, Integer> entry : properties.getSlaveWeight().entrySet()) {
+            String slaveKey = entry.getKey();
+            HikariDataSource slaveDataSource = createSlaveDataSource(binder, slaveKey);
+            dataSourceMetrics.bindPool(slaveKey, slaveDataSource);
+            targetDataSources.put(slaveKey, slaveDataSource);
+            slaveLoadBalancer.addNode(slaveKey, entry.getValue());
+        }
         dynamicDataSource.setTargetDataSources(targetDataSources);
+        dynamicDataSource.setSlaveLoadBalancer(slaveLoadBalancer);
+        dynamicDataSource.setDataSourceMetrics(dataSourceMetrics);
+        
+        // 读写一致性：写操作之后的时间窗口内读主库
+        DynamicDataSourceProperties.ReadYourWrites readYourWrites = properties.getReadYourWrites();
+        if (readYourWrites.isEnabled()) {
+            dynamicDataSource.setReadYourWritesWindow(readYourWrites.getWindow());
+        }
         
         return dynamicDataSource;
     }
 
+    /**
+     * 从库（读库）
+     * 绑定 spring.datasource.{slaveKey} 下的配置
+     */
+    static HikariDataSource createSlaveDataSource(Binder binder, String slaveKey) {
+        HikariDataSource slaveDataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .build();
+        binder.bind("spring.datasource." + slaveKey, Bindable.ofInstance(slaveDataSource))
+                .orElseThrow(() -> new IllegalStateException("缺少从库配置: spring.datasource." + slaveKey));
+        return slaveDataSource;
+    }
+
     /**
      * SqlSessionFactory配置
      */
     @Bean
     @Primary
-    public SqlSessionFactory sqlSessionFactory(@Qualifier("dynamicDataSource") DataSource dynamicDataSource) 
+    public SqlSessionFactory sqlSessionFactory(@Qualifier("dynamicDataSource") DataSource dynamicDataSource,
+                                               DataSourceMetrics dataSourceMetrics,
+                                               SqlLogInterceptor sqlLogInterceptor) 
             throws Exception {
         SqlSessionFactoryBean sessionFactory = new SqlSessionFactoryBean();
         sessionFactory.setDataSource(dynamicDataSource);
         
+        // 按数据源和Mapper方法统计SQL耗时，输出慢SQL和抽样SQL日志
+        sessionFactory.setPlugins(new StatementMetricsInterceptor(dataSourceMetrics), sqlLogInterceptor);
+        
         // MyBatis配置
         org.apache.ibatis.session.Configuration configuration = new org.apache.ibatis.session.Configuration();
         configuration.setMapUnderscoreToCamelCase(true);
@@ -4,35 +4,88 @@ import com.example.annotation.DataSourceType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+
 /**
  * 数据源上下文持有者
  * 使用ThreadLocal保证线程安全
+ *
+ * 数据源类型以栈的方式保存：进入@DataSource作用域时压栈，退出时出栈，
+ * 嵌套调用（如主库Service方法内调用Mapper方法）结束后会恢复外层的数据源
  */
 public class DataSourceContextHolder {
     
     private static final Logger logger = LoggerFactory.getLogger(DataSourceContextHolder.class);
     
     /**
-     * 使用ThreadLocal保存当前线程的数据源类型
+     * 使用ThreadLocal保存当前线程的数据源类型栈，栈顶为当前生效的数据源
      */
-    private static final ThreadLocal<DataSourceType> CONTEXT_HOLDER = new ThreadLocal<>();
+    private static final ThreadLocal<Deque<DataSourceType>> CONTEXT_HOLDER = new ThreadLocal<>();
     
     /**
-     * 设置当前线程的数据源类型
+     * 当前线程最近一次获取连接时实际路由到的数据源名称，用于监控指标
      */
-    public static void setDataSourceType(DataSourceType dataSourceType) {
+    private static final ThreadLocal<String> ROUTED_KEY_HOLDER = new ThreadLocal<>();
+    
+    /**
+     * 当前线程（请求）最近一次写操作的时间戳，用于读写一致性路由
+     */
+    private static final ThreadLocal<Long> LAST_WRITE_TIME_HOLDER = new ThreadLocal<>();
+    
+    /**
+     * 进入新的数据源作用域
+     * 必须与poll()成对调用
+     */
+    public static void push(DataSourceType dataSourceType) {
         if (dataSourceType == null) {
             dataSourceType = DataSourceType.MASTER;
         }
-        logger.debug("切换数据源到: {}", dataSourceType.getValue());
-        CONTEXT_HOLDER.set(dataSourceType);
+        Deque<DataSourceType> stack = CONTEXT_HOLDER.get();
+        if (stack == null) {
+            stack = new ArrayDeque<>();
+            CONTEXT_HOLDER.set(stack);
+        }
+        logger.debug("切换数据源到: {}, 嵌套层数: {}", dataSourceType.getValue(), stack.size() + 1);
+        stack.push(dataSourceType);
+    }
+    
+    /**
+     * 退出当前数据源作用域，恢复外层的数据源
+     * 最外层作用域退出后清理ThreadLocal，包括实际路由到的数据源名称
+     */
+    public static void poll() {
+        Deque<DataSourceType> stack = CONTEXT_HOLDER.get();
+        if (stack == null) {
+            return;
+        }
+        DataSourceType dataSourceType = stack.poll();
+        if (stack.isEmpty()) {
+            CONTEXT_HOLDER.remove();
+            ROUTED_KEY_HOLDER.remove();
+        }
+        logger.debug("退出数据源: {}, 恢复为: {}",
+                dataSourceType != null ? dataSourceType.getValue() : null, getCurrentDataSourceKey());
+    }
+    
+    /**
+     * 设置当前线程的数据源类型
+     * 替换当前作用域（栈顶）的数据源，没有作用域时新建一个
+     */
+    public static void setDataSourceType(DataSourceType dataSourceType) {
+        Deque<DataSourceType> stack = CONTEXT_HOLDER.get();
+        if (stack != null && !stack.isEmpty()) {
+            stack.pop();
+        }
+        push(dataSourceType);
     }
     
     /**
      * 获取当前线程的数据源类型
      */
     public static DataSourceType getDataSourceType() {
-        DataSourceType dataSourceType = CONTEXT_HOLDER.get();
+        Deque<DataSourceType> stack = CONTEXT_HOLDER.get();
+        DataSourceType dataSourceType = stack != null ? stack.peek() : null;
         if (dataSourceType == null) {
             dataSourceType = DataSourceType.MASTER;
             logger.debug("当前线程未设置数据源，使用默认数据源: {}", dataSourceType.getValue());
@@ -40,15 +93,26 @@ public class DataSourceContextHolder {
         return dataSourceType;
     }
     
+    /**
+     * 获取当前作用域显式设置的数据源类型，未设置时返回null
+     * 用于跨线程传递上下文，不回退到默认数据源
+     */
+    static DataSourceType peekDataSourceType() {
+        Deque<DataSourceType> stack = CONTEXT_HOLDER.get();
+        return stack != null ? stack.peek() : null;
+    }
+    
     /**
      * 清除当前线程的数据源类型
+     * 清空所有嵌套作用域，一般只在请求结束等最外层使用
      */
     public static void clearDataSourceType() {
-        DataSourceType dataSourceType = CONTEXT_HOLDER.get();
-        if (dataSourceType != null) {
-            logger.debug("清除数据源: {}", dataSourceType.getValue());
+        Deque<DataSourceType> stack = CONTEXT_HOLDER.get();
+        if (stack != null) {
+            logger.debug("清除数据源: {}", stack.peek() != null ? stack.peek().getValue() : null);
             CONTEXT_HOLDER.remove();
         }
+        ROUTED_KEY_HOLDER.remove();
     }
     
     /**
@@ -57,4 +121,49 @@ public class DataSourceContextHolder {
     public static String getCurrentDataSourceKey() {
         return getDataSourceType().getValue();
     }
+    
+    /**
+     * 记录实际路由到的数据源名称
+     */
+    static void setRoutedKey(String routedKey) {
+        ROUTED_KEY_HOLDER.set(routedKey);
+    }
+    
+    /**
+     * 获取当前线程最近一次获取连接时实际路由到的数据源名称，没有时返回unknown
+     */
+    public static String getRoutedKey() {
+        String routedKey = ROUTED_KEY_HOLDER.get();
+        return routedKey != null ? routedKey : "unknown";
+    }
+    
+    /**
+     * 记录一次写操作
+     * 之后一段时间内的读请求会路由到主库，避免读到从库的延迟数据
+     */
+    public static void markWrite() {
+        LAST_WRITE_TIME_HOLDER.set(System.currentTimeMillis());
+    }
+    
+    /**
+     * 设置最近一次写操作的时间戳（如从请求Cookie中恢复）
+     */
+    public static void setLastWriteTime(long lastWriteTime) {
+        LAST_WRITE_TIME_HOLDER.set(lastWriteTime);
+    }
+    
+    /**
+     * 获取最近一次写操作的时间戳，没有写操作时返回0
+     */
+    public static long getLastWriteTime() {
+        Long lastWriteTime = LAST_WRITE_TIME_HOLDER.get();
+        return lastWriteTime != null ? lastWriteTime : 0L;
+    }
+    
+    /**
+     * 清除写操作时间戳
+     */
+    public static void clearLastWriteTime() {
+        LAST_WRITE_TIME_HOLDER.remove();
+    }
 }
@@ -0,0 +1,105 @@
+package com.example.config;
+
+import com.example.annotation.DataSourceType;
+
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * 数据源上下文快照
+ *
+ * DataSourceContextHolder基于ThreadLocal，CompletableFuture、@Async或虚拟线程中执行的任务
+ * 拿不到提交线程的数据源，会回退到默认的主库。
+ * 在提交任务的线程中capture()，再用快照包装任务，任务执行期间恢复提交时的数据源和写操作时间，
+ * 执行结束后还原工作线程原有的上下文
+ *
+ * 用法：
+ * <pre>
+ * CompletableFuture.supplyAsync(DataSourceContextSnapshot.capture().wrap(() -> customerService.getAllCustomers()), executor);
+ * </pre>
+ */
+public final class DataSourceContextSnapshot {
+
+    private final DataSourceType dataSourceType;
+
+    private final long lastWriteTime;
+
+    private DataSourceContextSnapshot(DataSourceType dataSourceType, long lastWriteTime) {
+        this.dataSourceType = dataSourceType;
+        this.lastWriteTime = lastWriteTime;
+    }
+
+    /**
+     * 捕获当前线程的数据源上下文
+     */
+    public static DataSourceContextSnapshot capture() {
+        return new DataSourceContextSnapshot(DataSourceContextHolder.peekDataSourceType(),
+                DataSourceContextHolder.getLastWriteTime());
+    }
+
+    /**
+     * 包装执行器，提交的每个任务都会携带提交线程的数据源上下文
+     * 可包装线程池或虚拟线程执行器（Executors.newVirtualThreadPerTaskExecutor()）
+     */
+    public static Executor wrap(Executor executor) {
+        return command -> executor.execute(capture().wrap(command));
+    }
+
+    /**
+     * 包装任务，任务在快照的数据源上下文中执行
+     */
+    public Runnable wrap(Runnable task) {
+        return () -> {
+            long previousWriteTime = apply();
+            try {
+                task.run();
+            } finally {
+                restore(previousWriteTime);
+            }
+        };
+    }
+
+    /**
+     * 包装有返回值的任务，可直接用于CompletableFuture.supplyAsync
+     */
+    public <T> Supplier<T> wrap(Supplier<T> task) {
+        return () -> {
+            long previousWriteTime = apply();
+            try {
+                return task.get();
+            } finally {
+                restore(previousWriteTime);
+            }
+        };
+    }
+
+    /**
+     * 在当前线程上应用快照
+     *
+     * @return 工作线程原有的写操作时间
+     */
+    private long apply() {
+        long previousWriteTime = DataSourceContextHolder.getLastWriteTime();
+        if (lastWriteTime > 0) {
+            DataSourceContextHolder.setLastWriteTime(lastWriteTime);
+        }
+        if (dataSourceType != null) {
+            DataSourceContextHolder.push(dataSourceType);
+        }
+        return previousWriteTime;
+    }
+
+    /**
+     * 还原工作线程原有的上下文
+     */
+    private void restore(long previousWriteTime) {
+        if (dataSourceType != null) {
+            DataSourceContextHolder.poll();
+        }
+        if (previousWriteTime > 0) {
+            DataSourceContextHolder.setLastWriteTime(previousWriteTime);
+        } else {
+            DataSourceContextHolder.clearLastWriteTime();
+        }
+    }
+}
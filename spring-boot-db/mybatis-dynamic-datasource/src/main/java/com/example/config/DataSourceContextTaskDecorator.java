@@ -0,0 +1,20 @@
+package com.example.config;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * 数据源上下文任务装饰器
+ *
+ * Spring Boot自动配置的applicationTaskExecutor（@Async、平台线程池或
+ * spring.threads.virtual.enabled=true时的虚拟线程执行器）会使用容器中的TaskDecorator，
+ * 异步任务因此沿用提交线程的数据源
+ */
+@Component
+public class DataSourceContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return DataSourceContextSnapshot.capture().wrap(runnable);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.config;
+
+/**
+ * 运行期添加的从库定义
+ *
+ * 连接配置只能来自配置文件中的 spring.datasource.{name}，不接受请求传入的url和账号，
+ * 需要事先在配置文件中准备好备用从库，需要时再加入负载均衡
+ */
+public class DataSourceDefinition {
+
+    /**
+     * 从库名称
+     */
+    private String name;
+
+    /**
+     * 负载均衡权重
+     */
+    private int weight = 1;
+
+    /**
+     * 连接池最大连接数，为空时使用配置或Hikari默认值
+     */
+    private Integer maximumPoolSize;
+
+    /**
+     * 连接池最小空闲连接数，为空时使用配置或Hikari默认值
+     */
+    private Integer minimumIdle;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
+    public Integer getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(Integer maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public Integer getMinimumIdle() {
+        return minimumIdle;
+    }
+
+    public void setMinimumIdle(Integer minimumIdle) {
+        this.minimumIdle = minimumIdle;
+    }
+}
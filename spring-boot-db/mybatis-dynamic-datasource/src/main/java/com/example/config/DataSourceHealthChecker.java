@@ -0,0 +1,192 @@
+package com.example.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 数据源健康检查器
+ *
+ * 功能：
+ * 1. 后台定时校验每个目标数据源的连接（Connection.isValid，不执行业务SQL）
+ * 2. 从库检查失败时从负载均衡器中摘除，恢复后自动重新加入
+ * 3. 所有从库都不可用时，读请求由DynamicDataSource回退到主库
+ *
+ * 各数据源在单独的线程中并行校验，整次检查最多等待timeout秒：
+ * 不可达的数据源获取连接时会阻塞到连接池的connection-timeout，按超时判定为不可用，不影响其他数据源的检查。
+ * 上一次校验仍未返回的数据源不再重复发起校验，继续等待原来的结果
+ */
+@Component
+public class DataSourceHealthChecker implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceHealthChecker.class);
+
+    private final DynamicDataSource dynamicDataSource;
+
+    private final DynamicDataSourceProperties.HealthCheck healthCheckProperties;
+
+    /**
+     * 最近一次检查结果，key为数据源名称
+     */
+    private final Map<String, Boolean> healthStatus = new ConcurrentHashMap<>();
+
+    /**
+     * 正在进行的连接校验，key为数据源名称
+     */
+    private final Map<String, Future<Boolean>> probes = new ConcurrentHashMap<>();
+
+    /**
+     * 执行连接校验的线程池，每个数据源同时最多一个校验线程
+     */
+    private final ExecutorService probeExecutor;
+
+    private ScheduledExecutorService scheduler;
+
+    public DataSourceHealthChecker(DynamicDataSource dynamicDataSource, DynamicDataSourceProperties properties) {
+        this.dynamicDataSource = dynamicDataSource;
+        this.healthCheckProperties = properties.getHealthCheck();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.probeExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "datasource-health-probe-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!healthCheckProperties.isEnabled()) {
+            logger.info("数据源健康检查未开启");
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "datasource-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = healthCheckProperties.getInterval();
+        scheduler.scheduleWithFixedDelay(this::checkHealthSafely, interval, interval, TimeUnit.MILLISECONDS);
+        logger.info("数据源健康检查已开启，检查间隔: {}ms", interval);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        probeExecutor.shutdownNow();
+    }
+
+    /**
+     * 检查所有数据源并更新从库的可用状态，最多等待timeout秒
+     *
+     * @return 每个数据源的健康状态
+     */
+    public Map<String, Boolean> checkHealth() {
+        SlaveLoadBalancer slaveLoadBalancer = dynamicDataSource.getSlaveLoadBalancer();
+        Map<String, Boolean> result = new LinkedHashMap<>();
+
+        // 先为所有数据源发起校验，再统一等待，一个数据源卡住不会推迟其他数据源的检查
+        Map<String, Future<Boolean>> pending = new LinkedHashMap<>();
+        for (Map.Entry<Object, DataSource> entry : dynamicDataSource.getResolvedDataSources().entrySet()) {
+            String key = String.valueOf(entry.getKey());
+            pending.put(key, probe(key, entry.getValue()));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(healthCheckProperties.getTimeout());
+        for (Map.Entry<String, Future<Boolean>> entry : pending.entrySet()) {
+            String key = entry.getKey();
+            boolean healthy = await(key, entry.getValue(), deadline);
+            result.put(key, healthy);
+            healthStatus.put(key, healthy);
+
+            if (slaveLoadBalancer.contains(key) && slaveLoadBalancer.setAvailable(key, healthy)) {
+                if (healthy) {
+                    logger.info("从库已恢复，重新加入负载均衡: {}", key);
+                } else {
+                    logger.warn("从库不可用，已从负载均衡中摘除: {}", key);
+                }
+            }
+        }
+
+        // 清理已移除数据源的检查结果
+        healthStatus.keySet().retainAll(result.keySet());
+        probes.keySet().retainAll(result.keySet());
+
+        if (slaveLoadBalancer.getAvailableKeys().isEmpty()) {
+            logger.warn("所有从库均不可用，读请求将回退到主库");
+        }
+        return result;
+    }
+
+    /**
+     * 获取最近一次检查结果
+     */
+    public Map<String, Boolean> getHealthStatus() {
+        return Collections.unmodifiableMap(healthStatus);
+    }
+
+    private void checkHealthSafely() {
+        try {
+            checkHealth();
+        } catch (Exception e) {
+            logger.error("数据源健康检查异常: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 发起一次连接校验，上一次校验仍未返回时沿用上一次的结果
+     */
+    private Future<Boolean> probe(String key, DataSource dataSource) {
+        return probes.compute(key, (k, running) -> running != null && !running.isDone()
+                ? running
+                : probeExecutor.submit(() -> ping(key, dataSource)));
+    }
+
+    /**
+     * 等待连接校验的结果，超过deadline（System.nanoTime）未返回时判定为不可用
+     */
+    private boolean await(String key, Future<Boolean> probe, long deadline) {
+        try {
+            return probe.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.debug("数据源连接校验超时: {}, 超时时间: {}s", key, healthCheckProperties.getTimeout());
+            return false;
+        } catch (ExecutionException e) {
+            logger.debug("数据源连接校验失败: {}, 错误: {}", key, e.getCause().getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 校验数据源连接是否可用
+     */
+    private boolean ping(String key, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isValid(healthCheckProperties.getTimeout());
+        } catch (Exception e) {
+            logger.debug("数据源连接校验失败: {}, 错误: {}", key, e.getMessage());
+            return false;
+        }
+    }
+}
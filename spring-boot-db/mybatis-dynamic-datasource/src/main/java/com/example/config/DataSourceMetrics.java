@@ -0,0 +1,89 @@
+package com.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据源监控指标
+ *
+ * 通过 /actuator/metrics 查看：
+ * - dynamic.datasource.statement：每条SQL的执行耗时，标签为target（实际使用的数据源）、
+ *   statement（Mapper方法，如CustomerMapper.selectById）、outcome（success/error）
+ * - dynamic.datasource.routing：路由决策次数，标签为type（请求的数据源类型）、target、
+ *   reason（explicit指定、balanced负载均衡、read-your-writes读写一致性、fallback无可用从库）
+ * - hikaricp.connections.acquire 等：Hikari连接池指标，pool标签为数据源名称，包含获取连接的等待时间
+ */
+@Component
+public class DataSourceMetrics {
+
+    public static final String STATEMENT_METRIC = "dynamic.datasource.statement";
+
+    public static final String ROUTING_METRIC = "dynamic.datasource.routing";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 已注册的Timer，按target、statement、outcome缓存，避免每条SQL都重新构建和查找
+     */
+    private final Map<List<String>, Timer> statementTimers = new ConcurrentHashMap<>();
+
+    /**
+     * 已注册的Counter，按type、target、reason缓存
+     */
+    private final Map<List<String>, Counter> routingCounters = new ConcurrentHashMap<>();
+
+    public DataSourceMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 记录一次SQL执行
+     */
+    public void recordStatement(String target, String statement, boolean success, long durationNanos) {
+        String outcome = success ? "success" : "error";
+        statementTimers.computeIfAbsent(List.of(target, statement, outcome), key -> Timer.builder(STATEMENT_METRIC)
+                        .description("SQL执行耗时")
+                        .tag("target", target)
+                        .tag("statement", statement)
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次路由决策
+     */
+    public void recordRouting(String type, String target, String reason) {
+        routingCounters.computeIfAbsent(List.of(type, target, reason), key -> Counter.builder(ROUTING_METRIC)
+                        .description("数据源路由次数")
+                        .tag("type", type)
+                        .tag("target", target)
+                        .tag("reason", reason)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * 为非Spring Bean的Hikari连接池（从库）开启连接池指标
+     * 必须在连接池启动前调用
+     */
+    public void bindPool(String name, HikariDataSource dataSource) {
+        if (dataSource.getPoolName() == null) {
+            dataSource.setPoolName(name);
+        }
+        if (dataSource.getMetricRegistry() == null && dataSource.getMetricsTrackerFactory() == null
+                && dataSource.getHikariPoolMXBean() == null) {
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        }
+    }
+}
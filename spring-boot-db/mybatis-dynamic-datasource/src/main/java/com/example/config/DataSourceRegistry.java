@@ -0,0 +1,317 @@
+package com.example.config;
+
+import com.example.annotation.DataSourceType;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据源注册中心
+ *
+ * 运行期管理DynamicDataSource的目标数据源，无需修改DataSourceConfig和重启应用：
+ * 1. 添加从库：按配置文件中预先定义的 spring.datasource.{name} 创建连接池并加入负载均衡
+ * 2. 摘除/恢复从库：摘除后不再分配新的读请求，连接池保留，可随时恢复
+ * 3. 移除从库：先摘除，等待使用中的连接归还后再关闭连接池，超时后强制关闭
+ * 4. 调整连接池大小：直接修改Hikari连接池的最大连接数和最小空闲连接数
+ *
+ * 管理接口见DataSourceRegistryEndpoint（/actuator/datasources）
+ */
+@Component
+public class DataSourceRegistry implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceRegistry.class);
+
+    /**
+     * 等待连接归还时的检查间隔（毫秒）
+     */
+    private static final long DRAIN_CHECK_INTERVAL = 500;
+
+    private final DynamicDataSource dynamicDataSource;
+
+    private final DataSourceMetrics dataSourceMetrics;
+
+    private final Environment environment;
+
+    private final long drainTimeout;
+
+    /**
+     * 已摘除的从库及其原权重
+     */
+    private final Map<String, Integer> drainedWeights = new ConcurrentHashMap<>();
+
+    /**
+     * 已移除、等待连接归还后关闭的连接池
+     */
+    private final Map<String, DataSource> closingDataSources = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService drainExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "datasource-drain");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DataSourceRegistry(DynamicDataSource dynamicDataSource, DynamicDataSourceProperties properties,
+                              DataSourceMetrics dataSourceMetrics, Environment environment) {
+        this.dynamicDataSource = dynamicDataSource;
+        this.dataSourceMetrics = dataSourceMetrics;
+        this.environment = environment;
+        this.drainTimeout = properties.getDrainTimeout();
+    }
+
+    /**
+     * 添加从库并加入负载均衡
+     */
+    public synchronized void addSlave(DataSourceDefinition definition) {
+        String name = definition.getName();
+        checkSlaveName(name);
+        if (dynamicDataSource.getResolvedDataSources().containsKey(name)) {
+            throw new IllegalArgumentException("数据源已存在: " + name);
+        }
+        if (definition.getWeight() <= 0) {
+            throw new IllegalArgumentException("从库权重必须大于0: " + name);
+        }
+
+        HikariDataSource dataSource = createDataSource(definition);
+        resizePool(name, dataSource, definition.getMaximumPoolSize(), definition.getMinimumIdle());
+        dataSourceMetrics.bindPool(name, dataSource);
+
+        dynamicDataSource.addTargetDataSource(name, dataSource);
+        dynamicDataSource.getSlaveLoadBalancer().addNode(name, definition.getWeight());
+        logger.info("已添加从库: {}, 权重: {}", name, definition.getWeight());
+    }
+
+    /**
+     * 摘除从库，不再分配新的读请求
+     */
+    public synchronized void drain(String name) {
+        checkSlaveName(name);
+        if (drainedWeights.containsKey(name)) {
+            return;
+        }
+        SlaveLoadBalancer slaveLoadBalancer = dynamicDataSource.getSlaveLoadBalancer();
+        Integer weight = slaveLoadBalancer.getWeights().get(name);
+        if (weight == null) {
+            throw new IllegalArgumentException("从库不存在: " + name);
+        }
+        slaveLoadBalancer.removeNode(name);
+        drainedWeights.put(name, weight);
+        logger.info("已摘除从库: {}", name);
+    }
+
+    /**
+     * 恢复已摘除的从库
+     */
+    public synchronized void resume(String name) {
+        Integer weight = drainedWeights.remove(name);
+        if (weight == null) {
+            throw new IllegalArgumentException("从库未被摘除: " + name);
+        }
+        dynamicDataSource.getSlaveLoadBalancer().addNode(name, weight);
+        logger.info("已恢复从库: {}, 权重: {}", name, weight);
+    }
+
+    /**
+     * 移除从库
+     * 连接池在使用中的连接全部归还后关闭，最长等待dynamic.datasource.drain-timeout
+     */
+    public synchronized void remove(String name) {
+        checkSlaveName(name);
+        dynamicDataSource.getSlaveLoadBalancer().removeNode(name);
+        drainedWeights.remove(name);
+        DataSource dataSource = dynamicDataSource.removeTargetDataSource(name);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("从库不存在: " + name);
+        }
+
+        String closingKey = name + "@" + System.identityHashCode(dataSource);
+        closingDataSources.put(closingKey, dataSource);
+        long deadline = System.currentTimeMillis() + drainTimeout;
+        drainExecutor.execute(() -> closeWhenIdle(closingKey, dataSource, deadline));
+    }
+
+    /**
+     * 调整连接池大小，参数为空时保持不变
+     */
+    public void resize(String name, Integer maximumPoolSize, Integer minimumIdle) {
+        DataSource dataSource = dynamicDataSource.getResolvedDataSources().get(name);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("数据源不存在: " + name);
+        }
+        if (!(dataSource instanceof HikariDataSource hikariDataSource)) {
+            throw new IllegalArgumentException("数据源不是Hikari连接池，无法调整大小: " + name);
+        }
+        resizePool(name, hikariDataSource, maximumPoolSize, minimumIdle);
+    }
+
+    /**
+     * 获取所有数据源的状态
+     */
+    public List<Map<String, Object>> getDataSources() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map.Entry<Object, DataSource> entry : dynamicDataSource.getResolvedDataSources().entrySet()) {
+            result.add(describe(String.valueOf(entry.getKey()), entry.getValue()));
+        }
+        for (Map.Entry<String, DataSource> entry : closingDataSources.entrySet()) {
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("name", entry.getKey());
+            info.put("role", "slave");
+            info.put("status", "CLOSING");
+            info.put("pool", describePool(entry.getValue()));
+            result.add(info);
+        }
+        return result;
+    }
+
+    /**
+     * 获取单个数据源的状态
+     */
+    public Map<String, Object> getDataSource(String name) {
+        DataSource dataSource = dynamicDataSource.getResolvedDataSources().get(name);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("数据源不存在: " + name);
+        }
+        return describe(name, dataSource);
+    }
+
+    @Override
+    public void destroy() {
+        drainExecutor.shutdownNow();
+        closingDataSources.values().forEach(this::close);
+        closingDataSources.clear();
+    }
+
+    private Map<String, Object> describe(String name, DataSource dataSource) {
+        SlaveLoadBalancer slaveLoadBalancer = dynamicDataSource.getSlaveLoadBalancer();
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("name", name);
+        if (DataSourceType.MASTER.getValue().equals(name)) {
+            info.put("role", "master");
+            info.put("status", "ACTIVE");
+        } else {
+            info.put("role", "slave");
+            Integer weight = slaveLoadBalancer.getWeights().get(name);
+            if (weight == null) {
+                weight = drainedWeights.get(name);
+            }
+            info.put("weight", weight);
+            if (drainedWeights.containsKey(name)) {
+                info.put("status", "DRAINED");
+            } else if (slaveLoadBalancer.getAvailableKeys().contains(name)) {
+                info.put("status", "ACTIVE");
+            } else {
+                info.put("status", "UNAVAILABLE");
+            }
+        }
+        info.put("pool", describePool(dataSource));
+        return info;
+    }
+
+    private Map<String, Object> describePool(DataSource dataSource) {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        if (dataSource instanceof HikariDataSource hikariDataSource) {
+            pool.put("maximumPoolSize", hikariDataSource.getMaximumPoolSize());
+            pool.put("minimumIdle", hikariDataSource.getMinimumIdle());
+            HikariPoolMXBean poolMXBean = hikariDataSource.getHikariPoolMXBean();
+            if (poolMXBean != null) {
+                pool.put("activeConnections", poolMXBean.getActiveConnections());
+                pool.put("idleConnections", poolMXBean.getIdleConnections());
+                pool.put("totalConnections", poolMXBean.getTotalConnections());
+                pool.put("threadsAwaitingConnection", poolMXBean.getThreadsAwaitingConnection());
+            }
+        }
+        return pool;
+    }
+
+    private void checkSlaveName(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("从库名称不能为空");
+        }
+        if (DataSourceType.MASTER.getValue().equals(name)) {
+            throw new IllegalArgumentException("主库不能被添加、摘除或移除");
+        }
+    }
+
+    /**
+     * 按配置文件中 spring.datasource.{name} 的连接配置创建连接池
+     * 只能添加配置文件中已定义的从库，不接受外部传入的连接地址和账号
+     */
+    private HikariDataSource createDataSource(DataSourceDefinition definition) {
+        try {
+            return DataSourceConfig.createSlaveDataSource(Binder.get(environment), definition.getName());
+        } catch (IllegalStateException e) {
+            throw new IllegalArgumentException("未在配置文件中定义的从库: spring.datasource." + definition.getName(), e);
+        }
+    }
+
+    private void resizePool(String name, HikariDataSource dataSource, Integer maximumPoolSize, Integer minimumIdle) {
+        if (maximumPoolSize == null && minimumIdle == null) {
+            return;
+        }
+        int newMaximumPoolSize = maximumPoolSize != null ? maximumPoolSize : dataSource.getMaximumPoolSize();
+        int newMinimumIdle = minimumIdle != null ? minimumIdle : dataSource.getMinimumIdle();
+        if (newMaximumPoolSize <= 0) {
+            throw new IllegalArgumentException("最大连接数必须大于0: " + name);
+        }
+        if (newMinimumIdle < 0 || newMinimumIdle > newMaximumPoolSize) {
+            throw new IllegalArgumentException("最小空闲连接数必须在0到最大连接数之间: " + name);
+        }
+
+        // 连接池启动后通过MXBean修改，Hikari会在后台按新的大小补充或回收连接
+        HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+        config.setMaximumPoolSize(newMaximumPoolSize);
+        config.setMinimumIdle(newMinimumIdle);
+        logger.info("已调整连接池大小: {}, maximumPoolSize={}, minimumIdle={}", name, newMaximumPoolSize, newMinimumIdle);
+    }
+
+    /**
+     * 等待使用中的连接归还后关闭连接池
+     */
+    private void closeWhenIdle(String closingKey, DataSource dataSource, long deadline) {
+        int activeConnections = activeConnections(dataSource);
+        if (activeConnections > 0 && System.currentTimeMillis() < deadline) {
+            drainExecutor.schedule(() -> closeWhenIdle(closingKey, dataSource, deadline),
+                    DRAIN_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+            return;
+        }
+        if (activeConnections > 0) {
+            logger.warn("等待连接归还超时，强制关闭连接池: {}, 使用中的连接数: {}", closingKey, activeConnections);
+        }
+        close(dataSource);
+        closingDataSources.remove(closingKey);
+        logger.info("已关闭连接池: {}", closingKey);
+    }
+
+    private int activeConnections(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikariDataSource) {
+            HikariPoolMXBean poolMXBean = hikariDataSource.getHikariPoolMXBean();
+            return poolMXBean != null ? poolMXBean.getActiveConnections() : 0;
+        }
+        return 0;
+    }
+
+    private void close(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                logger.error("关闭连接池失败: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.config;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据源管理端点
+ *
+ * GET    /actuator/datasources          查看所有数据源及连接池状态
+ * GET    /actuator/datasources/{name}   查看单个数据源
+ * POST   /actuator/datasources/{name}   执行操作，action为 add / drain / resume / resize
+ * DELETE /actuator/datasources/{name}   移除从库，连接归还后关闭连接池
+ *
+ * add只能加入配置文件中已定义的 spring.datasource.{name}，不接受请求传入的连接地址和账号。
+ * 写操作默认关闭（management.endpoint.datasources.access: read-only），
+ * 开启（unrestricted）前必须通过Spring Security等方式限制访问，否则任何人都能摘除或移除从库
+ *
+ * 示例：
+ * curl -X POST localhost:8084/actuator/datasources/slave2 -H 'Content-Type: application/json' \
+ *      -d '{"action":"add","weight":2}'
+ * curl -X POST localhost:8084/actuator/datasources/master -H 'Content-Type: application/json' \
+ *      -d '{"action":"resize","maximumPoolSize":30}'
+ */
+@Component
+@Endpoint(id = "datasources")
+public class DataSourceRegistryEndpoint {
+
+    private final DataSourceRegistry dataSourceRegistry;
+
+    public DataSourceRegistryEndpoint(DataSourceRegistry dataSourceRegistry) {
+        this.dataSourceRegistry = dataSourceRegistry;
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> dataSources() {
+        return dataSourceRegistry.getDataSources();
+    }
+
+    @ReadOperation
+    public Map<String, Object> dataSource(@Selector String name) {
+        return dataSourceRegistry.getDataSource(name);
+    }
+
+    @WriteOperation
+    public Map<String, Object> update(@Selector String name, String action, @Nullable Integer weight,
+                                      @Nullable Integer maximumPoolSize, @Nullable Integer minimumIdle) {
+        try {
+            apply(name, action, weight, maximumPoolSize, minimumIdle);
+        } catch (IllegalArgumentException e) {
+            // 参数错误返回400
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        return result(name, action);
+    }
+
+    @DeleteOperation
+    public Map<String, Object> remove(@Selector String name) {
+        try {
+            dataSourceRegistry.remove(name);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        return result(name, "remove");
+    }
+
+    private void apply(String name, String action, Integer weight, Integer maximumPoolSize, Integer minimumIdle) {
+        switch (action) {
+            case "add" -> {
+                DataSourceDefinition definition = new DataSourceDefinition();
+                definition.setName(name);
+                if (weight != null) {
+                    definition.setWeight(weight);
+                }
+                definition.setMaximumPoolSize(maximumPoolSize);
+                definition.setMinimumIdle(minimumIdle);
+                dataSourceRegistry.addSlave(definition);
+            }
+            case "drain" -> dataSourceRegistry.drain(name);
+            case "resume" -> dataSourceRegistry.resume(name);
+            case "resize" -> dataSourceRegistry.resize(name, maximumPoolSize, minimumIdle);
+            default -> throw new IllegalArgumentException("不支持的操作: " + action);
+        }
+    }
+
+    private Map<String, Object> result(String name, String action) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("name", name);
+        result.put("action", action);
+        result.put("message", "操作成功");
+        return result;
+    }
+}
@@ -3,16 +3,62 @@ package com.example.config;
 import com.example.annotation.DataSourceType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * 动态数据源路由器
  * 继承AbstractRoutingDataSource，实现数据源的动态切换
+ *
+ * 从库请求会通过SlaveLoadBalancer在多个从库之间按权重分配；
+ * 写操作之后的读写一致性窗口内，从库请求会改为路由到主库
+ * 目标数据源可以通过DataSourceRegistry在运行期添加和移除
  */
-public class DynamicDataSource extends AbstractRoutingDataSource {
-    
+public class DynamicDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
     private static final Logger logger = LoggerFactory.getLogger(DynamicDataSource.class);
-    
+
+    /**
+     * 从库负载均衡器
+     */
+    private SlaveLoadBalancer slaveLoadBalancer = new SlaveLoadBalancer();
+
+    /**
+     * 写后读主库的时间窗口（毫秒），0表示关闭
+     */
+    private long readYourWritesWindow;
+
+    /**
+     * 监控指标，为空时不记录
+     */
+    private DataSourceMetrics dataSourceMetrics;
+
+    /**
+     * 目标数据源，支持运行期添加和移除
+     * AbstractRoutingDataSource重新初始化时会重建内部Map，并发读取可能看到不完整的数据，因此单独维护
+     */
+    private final Map<Object, javax.sql.DataSource> dataSources = new ConcurrentHashMap<>();
+
+    public void setSlaveLoadBalancer(SlaveLoadBalancer slaveLoadBalancer) {
+        this.slaveLoadBalancer = slaveLoadBalancer;
+    }
+
+    public SlaveLoadBalancer getSlaveLoadBalancer() {
+        return slaveLoadBalancer;
+    }
+
+    public void setReadYourWritesWindow(long readYourWritesWindow) {
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+
+    public void setDataSourceMetrics(DataSourceMetrics dataSourceMetrics) {
+        this.dataSourceMetrics = dataSourceMetrics;
+    }
+
     /**
      * 决定使用哪个数据源
      * 这个方法在每次数据库操作时都会被调用
@@ -21,19 +67,112 @@ public class DynamicDataSource extends AbstractRoutingDataSource {
     protected Object determineCurrentLookupKey() {
         DataSourceType dataSourceType = DataSourceContextHolder.getDataSourceType();
         String dataSourceKey = dataSourceType.getValue();
-        
+        String reason = "explicit";
+
+        if (dataSourceType == DataSourceType.SLAVE && isWithinReadYourWritesWindow()) {
+            // 刚发生过写操作，从库可能尚未同步，读主库保证读写一致性
+            dataSourceKey = DataSourceType.MASTER.getValue();
+            reason = "read-your-writes";
+            logger.debug("最近有写操作，读请求路由到主库");
+        } else if (dataSourceType == DataSourceType.SLAVE) {
+            String slaveKey = slaveLoadBalancer.select();
+            if (slaveKey != null) {
+                dataSourceKey = slaveKey;
+                reason = "balanced";
+            } else {
+                // 没有可用从库时回退到主库
+                dataSourceKey = DataSourceType.MASTER.getValue();
+                reason = "fallback";
+                logger.warn("没有可用的从库，回退到主库");
+            }
+        }
+
+        if (dataSourceMetrics != null) {
+            dataSourceMetrics.recordRouting(dataSourceType.getValue(), dataSourceKey, reason);
+        }
+
         logger.debug("当前使用数据源: {}", dataSourceKey);
         return dataSourceKey;
     }
-    
+
+    /**
+     * 判断当前线程最近的写操作是否仍在读写一致性窗口内
+     */
+    private boolean isWithinReadYourWritesWindow() {
+        if (readYourWritesWindow <= 0) {
+            return false;
+        }
+        long lastWriteTime = DataSourceContextHolder.getLastWriteTime();
+        return lastWriteTime > 0 && System.currentTimeMillis() - lastWriteTime < readYourWritesWindow;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        dataSources.putAll(super.getResolvedDataSources());
+    }
+
     /**
      * 数据源切换后的回调方法
+     * 从运行期可变的数据源表中查找，找不到（如从库刚被移除）时使用默认数据源
      */
     @Override
     protected javax.sql.DataSource determineTargetDataSource() {
-        javax.sql.DataSource dataSource = super.determineTargetDataSource();
-        String currentKey = DataSourceContextHolder.getCurrentDataSourceKey();
-        logger.debug("成功切换到数据源: {}", currentKey);
+        Object lookupKey = determineCurrentLookupKey();
+        javax.sql.DataSource dataSource = dataSources.get(lookupKey);
+        if (dataSource == null) {
+            dataSource = getResolvedDefaultDataSource();
+            lookupKey = DataSourceType.MASTER.getValue();
+        }
+        if (dataSource == null) {
+            throw new IllegalStateException("无法找到数据源: " + lookupKey);
+        }
+        DataSourceContextHolder.setRoutedKey(String.valueOf(lookupKey));
+        logger.debug("成功切换到数据源: {}", lookupKey);
+        return dataSource;
+    }
+
+    /**
+     * 获取当前所有目标数据源
+     */
+    @Override
+    public Map<Object, javax.sql.DataSource> getResolvedDataSources() {
+        return Collections.unmodifiableMap(dataSources);
+    }
+
+    /**
+     * 运行期添加目标数据源
+     */
+    public void addTargetDataSource(String key, javax.sql.DataSource dataSource) {
+        if (dataSources.putIfAbsent(key, dataSource) != null) {
+            throw new IllegalArgumentException("数据源已存在: " + key);
+        }
+        logger.info("已添加数据源: {}", key);
+    }
+
+    /**
+     * 运行期移除目标数据源，移除后的路由请求回退到默认数据源
+     *
+     * @return 被移除的数据源，不存在时返回null
+     */
+    public javax.sql.DataSource removeTargetDataSource(String key) {
+        javax.sql.DataSource dataSource = dataSources.remove(key);
+        if (dataSource != null) {
+            logger.info("已移除数据源: {}", key);
+        }
         return dataSource;
     }
+
+    /**
+     * 关闭所有目标数据源
+     * 从库连接池由DataSourceConfig按配置创建，不是独立的Bean，需要在这里释放
+     */
+    @Override
+    public void destroy() throws Exception {
+        for (javax.sql.DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
 }
@@ -0,0 +1,151 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 动态数据源配置属性
+ * 绑定 dynamic.datasource.* 配置
+ */
+@ConfigurationProperties(prefix = "dynamic.datasource")
+public class DynamicDataSourceProperties {
+
+    /**
+     * 从库权重配置
+     * key为从库名称，对应 spring.datasource.{key} 下的连接配置；value为权重
+     * 未配置时默认只有一个名为slave的从库
+     */
+    private Map<String, Integer> slaveWeight = new LinkedHashMap<>();
+
+    /**
+     * 数据源健康检查配置
+     */
+    private HealthCheck healthCheck = new HealthCheck();
+
+    /**
+     * 读写一致性配置
+     */
+    private ReadYourWrites readYourWrites = new ReadYourWrites();
+
+    /**
+     * 移除数据源时等待使用中的连接归还的最长时间（毫秒），超时后强制关闭连接池
+     */
+    private long drainTimeout = 30000;
+
+    public Map<String, Integer> getSlaveWeight() {
+        if (slaveWeight.isEmpty()) {
+            Map<String, Integer> defaultWeight = new LinkedHashMap<>();
+            defaultWeight.put("slave", 1);
+            return defaultWeight;
+        }
+        return slaveWeight;
+    }
+
+    public void setSlaveWeight(Map<String, Integer> slaveWeight) {
+        this.slaveWeight = slaveWeight;
+    }
+
+    public HealthCheck getHealthCheck() {
+        return healthCheck;
+    }
+
+    public void setHealthCheck(HealthCheck healthCheck) {
+        this.healthCheck = healthCheck;
+    }
+
+    public ReadYourWrites getReadYourWrites() {
+        return readYourWrites;
+    }
+
+    public void setReadYourWrites(ReadYourWrites readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    public long getDrainTimeout() {
+        return drainTimeout;
+    }
+
+    public void setDrainTimeout(long drainTimeout) {
+        this.drainTimeout = drainTimeout;
+    }
+
+    /**
+     * 健康检查配置
+     */
+    public static class HealthCheck {
+
+        /**
+         * 是否开启后台健康检查
+         */
+        private boolean enabled = true;
+
+        /**
+         * 检查间隔（毫秒）
+         */
+        private long interval = 30000;
+
+        /**
+         * 单次连接校验超时时间（秒）
+         */
+        private int timeout = 3;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getInterval() {
+            return interval;
+        }
+
+        public void setInterval(long interval) {
+            this.interval = interval;
+        }
+
+        public int getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(int timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    /**
+     * 读写一致性配置
+     * 写操作之后的一段时间内，同一请求或同一客户端的读请求路由到主库
+     */
+    public static class ReadYourWrites {
+
+        /**
+         * 是否开启
+         */
+        private boolean enabled = true;
+
+        /**
+         * 写后读主库的时间窗口（毫秒），应大于从库的常规复制延迟
+         */
+        private long window = 2000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getWindow() {
+            return window;
+        }
+
+        public void setWindow(long window) {
+            this.window = window;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.config;
+
+import com.example.mapper.CustomerMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Consumer;
+
+/**
+ * 编码存在性过滤器配置类
+ *
+ * 客户编码的布隆过滤器，创建客户前检查编码是否重复时先查过滤器，判定不存在的不查询数据库。
+ * 过滤器只包含本实例写入和上次重建时的编码，可能漏判其他实例写入的编码，
+ * 因此只用于有唯一约束兜底的写入前检查，不用于按编码查询和存在性检查
+ */
+@Configuration
+@EnableConfigurationProperties(ExistenceFilterProperties.class)
+public class ExistenceFilterConfig {
+
+    @Bean
+    public ExistenceFilter customerCodeFilter(CustomerMapper customerMapper, ExistenceFilterProperties properties,
+                                              MeterRegistry meterRegistry) {
+        return createFilter("customerCode",
+                sink -> customerMapper.selectAllCustomerCodes(context -> sink.accept(context.getResultObject())),
+                properties, meterRegistry);
+    }
+
+    private ExistenceFilter createFilter(String name, Consumer<Consumer<String>> loader,
+                                         ExistenceFilterProperties properties, MeterRegistry meterRegistry) {
+        ExistenceFilter filter = new ExistenceFilter(name, loader, properties.getExpectedInsertions(),
+                properties.getFpp());
+        filter.bindTo(meterRegistry);
+        return filter;
+    }
+}
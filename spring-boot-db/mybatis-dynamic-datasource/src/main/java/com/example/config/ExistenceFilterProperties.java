@@ -0,0 +1,64 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 编码存在性过滤器配置属性
+ * 绑定 existence-filter.* 配置
+ */
+@ConfigurationProperties(prefix = "existence-filter")
+public class ExistenceFilterProperties {
+
+    /**
+     * 是否开启过滤器，关闭后所有存在性检查都查询数据库
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每个过滤器的预计编码个数，实际个数更多时按实际个数的两倍重建
+     */
+    private long expectedInsertions = 100000;
+
+    /**
+     * 误判率，误判时照常查询数据库
+     */
+    private double fpp = 0.01;
+
+    /**
+     * 重建间隔（毫秒）
+     * 重建会从主库读取全部编码，清除已删除编码留下的误判，并补上其他实例写入的编码
+     */
+    private long rebuildInterval = 600000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public void setExpectedInsertions(long expectedInsertions) {
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    public double getFpp() {
+        return fpp;
+    }
+
+    public void setFpp(double fpp) {
+        this.fpp = fpp;
+    }
+
+    public long getRebuildInterval() {
+        return rebuildInterval;
+    }
+
+    public void setRebuildInterval(long rebuildInterval) {
+        this.rebuildInterval = rebuildInterval;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 编码存在性过滤器重建器
+ *
+ * 启动后立即构建一次，之后按固定间隔从主库重新读取全部编码，
+ * 清除已删除编码留下的误判，并补上其他实例或直接改库写入的编码
+ */
+@Component
+public class ExistenceFilterRebuilder implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExistenceFilterRebuilder.class);
+
+    private final List<ExistenceFilter> filters;
+
+    private final ExistenceFilterProperties properties;
+
+    private ScheduledExecutorService scheduler;
+
+    public ExistenceFilterRebuilder(List<ExistenceFilter> filters, ExistenceFilterProperties properties) {
+        this.filters = filters;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!properties.isEnabled()) {
+            logger.info("编码存在性过滤器未开启");
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "existence-filter-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getRebuildInterval();
+        scheduler.scheduleWithFixedDelay(this::rebuildAll, 0, interval, TimeUnit.MILLISECONDS);
+        logger.info("编码存在性过滤器已开启，重建间隔: {}ms", interval);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 重建所有过滤器，单个过滤器失败时保留原过滤器，不影响其他过滤器
+     */
+    public void rebuildAll() {
+        for (ExistenceFilter filter : filters) {
+            try {
+                long count = filter.rebuild();
+                logger.debug("过滤器已重建: {}, 编码数: {}", filter.getName(), count);
+            } catch (Exception e) {
+                logger.error("过滤器重建失败: {}, 错误: {}", filter.getName(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 组提交配置属性
+ * 绑定 group-commit.* 配置
+ */
+@ConfigurationProperties(prefix = "group-commit")
+public class GroupCommitProperties {
+
+    /**
+     * 是否开启组提交，关闭时每次创建单独提交
+     */
+    private boolean enabled = false;
+
+    /**
+     * 合并窗口（毫秒），第一条记录到达后最多等待这么久再提交
+     */
+    private long window = 2;
+
+    /**
+     * 每组最多的记录数，达到后不等窗口结束立即提交
+     */
+    private int maxGroupSize = 100;
+
+    /**
+     * 执行组提交的线程数，同时占用的主库连接不超过这个数
+     */
+    private int threads = 2;
+
+    /**
+     * 调用方等待所在的组提交完成的最长时间（毫秒）
+     */
+    private long timeout = 5000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getWindow() {
+        return window;
+    }
+
+    public void setWindow(long window) {
+        this.window = window;
+    }
+
+    public int getMaxGroupSize() {
+        return maxGroupSize;
+    }
+
+    public void setMaxGroupSize(int maxGroupSize) {
+        this.maxGroupSize = maxGroupSize;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 进程内本地缓存
+ *
+ * 按过期时间和最大条数淘汰，过期条目在访问时移除。
+ * 读取不加锁：条目保存在ConcurrentHashMap中，命中时只记录访问时间；
+ * 超过最大条数时从若干条目中抽样，淘汰其中最久未访问的条目（近似LRU）。
+ * 加载结果为null时不缓存，避免新增数据后仍然读到缓存的空结果。
+ * 缓存的对象会直接返回给所有调用方，同一个实例被多个线程共享，调用方只能读取，不能修改
+ */
+public class LocalCache<K, V> {
+
+    private final String name;
+
+    private final int maximumSize;
+
+    private final long ttlMillis;
+
+    /**
+     * 每次淘汰时抽样的条目数
+     */
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+
+    private final ConcurrentHashMap<K, CacheEntry<V>> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public LocalCache(String name, int maximumSize, long ttlMillis) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("缓存最大条数必须大于0: " + name);
+        }
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("缓存过期时间必须大于0: " + name);
+        }
+        this.name = name;
+        this.maximumSize = maximumSize;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * 读取缓存，未命中时通过loader加载并放入缓存
+     */
+    public V get(K key, Function<K, V> loader) {
+        V value = getIfPresent(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 读取缓存，未命中或已过期时返回null
+     */
+    public V getIfPresent(K key) {
+        CacheEntry<V> entry = entries.get(key);
+        if (entry != null && entry.expireTime > System.currentTimeMillis()) {
+            entry.accessTime = System.nanoTime();
+            hits.increment();
+            return entry.value;
+        }
+        // 只移除读到的这个条目，不影响其他线程刚放入的新条目
+        if (entry != null && entries.remove(key, entry)) {
+            evictions.increment();
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(K key, V value) {
+        entries.put(key, new CacheEntry<>(value, System.currentTimeMillis() + ttlMillis, System.nanoTime()));
+        while (entries.size() > maximumSize) {
+            evictSample();
+        }
+    }
+
+    public void evict(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * 抽样若干条目，淘汰其中最久未访问的一个
+     */
+    private void evictSample() {
+        Iterator<Map.Entry<K, CacheEntry<V>>> iterator = entries.entrySet().iterator();
+        Map.Entry<K, CacheEntry<V>> victim = null;
+        for (int i = 0; i < EVICTION_SAMPLE_SIZE && iterator.hasNext(); i++) {
+            Map.Entry<K, CacheEntry<V>> candidate = iterator.next();
+            if (victim == null || candidate.getValue().accessTime - victim.getValue().accessTime < 0) {
+                victim = candidate;
+            }
+        }
+        if (victim != null && entries.remove(victim.getKey(), victim.getValue())) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * 立即移除缓存，并在当前事务提交后再移除一次
+     * 防止事务提交前其他线程读到旧数据并重新放入缓存
+     */
+    public void evictAfterCommit(K key) {
+        evict(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(key);
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 注册缓存指标：cache.gets（result=hit/miss）、cache.evictions、cache.size
+     */
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tag("cache", name).tag("result", "hit")
+                .description("缓存命中次数")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tag("cache", name).tag("result", "miss")
+                .description("缓存未命中次数")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tag("cache", name)
+                .description("缓存淘汰次数")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, LocalCache::size)
+                .tag("cache", name)
+                .description("缓存条数")
+                .register(meterRegistry);
+    }
+
+    private static final class CacheEntry<V> {
+        private final V value;
+        private final long expireTime;
+        private volatile long accessTime;
+
+        private CacheEntry(V value, long expireTime, long accessTime) {
+            this.value = value;
+            this.expireTime = expireTime;
+            this.accessTime = accessTime;
+        }
+    }
+}
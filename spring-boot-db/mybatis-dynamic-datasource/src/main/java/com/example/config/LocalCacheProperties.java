@@ -0,0 +1,38 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 本地缓存配置属性
+ * 绑定 local-cache.* 配置
+ */
+@ConfigurationProperties(prefix = "local-cache")
+public class LocalCacheProperties {
+
+    /**
+     * 缓存过期时间（毫秒）
+     * 缓存可能从从库加载，过期时间同时也是从库延迟数据在缓存中停留的上限
+     */
+    private long ttl = 60000;
+
+    /**
+     * 每个缓存的最大条数
+     */
+    private int maximumSize = 10000;
+
+    public long getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+}
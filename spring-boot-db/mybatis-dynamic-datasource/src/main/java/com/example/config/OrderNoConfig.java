@@ -0,0 +1,19 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 订单号生成配置类
+ * 默认使用Snowflake实现
+ */
+@Configuration
+@EnableConfigurationProperties(OrderNoProperties.class)
+public class OrderNoConfig {
+
+    @Bean
+    public OrderNoGenerator orderNoGenerator(OrderNoProperties properties) {
+        return new SnowflakeOrderNoGenerator(properties.getPrefix(), properties.getNodeId());
+    }
+}
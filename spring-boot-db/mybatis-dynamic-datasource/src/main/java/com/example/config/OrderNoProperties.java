@@ -0,0 +1,37 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 订单号生成配置属性
+ * 绑定 order-no.* 配置
+ */
+@ConfigurationProperties(prefix = "order-no")
+public class OrderNoProperties {
+
+    /**
+     * 订单号前缀
+     */
+    private String prefix = "ORD";
+
+    /**
+     * 节点号（0-1023），部署多个实例时每个实例必须不同
+     */
+    private long nodeId = 0;
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(long nodeId) {
+        this.nodeId = nodeId;
+    }
+}
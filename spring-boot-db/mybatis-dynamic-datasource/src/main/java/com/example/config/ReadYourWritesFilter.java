@@ -0,0 +1,92 @@
+package com.example.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 读写一致性过滤器
+ *
+ * 同一请求内的写后读由DataSourceContextHolder中的写时间戳保证；
+ * 跨请求时（如先POST创建再GET查询）通过Cookie把写时间戳带回服务端，
+ * 在时间窗口内的后续读请求同样路由到主库
+ */
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    /**
+     * 保存最近一次写操作时间戳的Cookie名称
+     */
+    public static final String LAST_WRITE_COOKIE = "DS_LAST_WRITE";
+
+    private final DynamicDataSourceProperties.ReadYourWrites readYourWrites;
+
+    public ReadYourWritesFilter(DynamicDataSourceProperties properties) {
+        this.readYourWrites = properties.getReadYourWrites();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !readYourWrites.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long requestWriteTime = readLastWriteTime(request);
+        if (requestWriteTime > 0) {
+            DataSourceContextHolder.setLastWriteTime(requestWriteTime);
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long lastWriteTime = DataSourceContextHolder.getLastWriteTime();
+            DataSourceContextHolder.clearLastWriteTime();
+
+            // 本次请求发生了写操作，通知客户端在时间窗口内携带写时间戳
+            if (lastWriteTime > requestWriteTime && !response.isCommitted()) {
+                Cookie cookie = new Cookie(LAST_WRITE_COOKIE, String.valueOf(lastWriteTime));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) Math.max(1, readYourWrites.getWindow() / 1000));
+                response.addCookie(cookie);
+            }
+        }
+    }
+
+    private long readLastWriteTime(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0L;
+        }
+        for (Cookie cookie : cookies) {
+            if (LAST_WRITE_COOKIE.equals(cookie.getName())) {
+                try {
+                    return acceptLastWriteTime(Long.parseLong(cookie.getValue()));
+                } catch (NumberFormatException e) {
+                    return 0L;
+                }
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Cookie由客户端回传，值可以被任意修改：只接受时间窗口内的写时间戳，
+     * 未来时间（会让该客户端的读请求一直路由到主库）和窗口外的时间都忽略
+     */
+    private long acceptLastWriteTime(long writeTime) {
+        long now = System.currentTimeMillis();
+        if (writeTime > now || writeTime < now - readYourWrites.getWindow()) {
+            return 0L;
+        }
+        return writeTime;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 行数计数器配置属性
+ * 绑定 row-counter.* 配置
+ */
+@ConfigurationProperties(prefix = "row-counter")
+public class RowCounterProperties {
+
+    /**
+     * 是否开启定期校准
+     */
+    private boolean reconcileEnabled = true;
+
+    /**
+     * 校准间隔（毫秒）
+     * 校准会对每张表执行一次COUNT(*)，间隔不宜过短
+     */
+    private long reconcileInterval = 3600000;
+
+    public boolean isReconcileEnabled() {
+        return reconcileEnabled;
+    }
+
+    public void setReconcileEnabled(boolean reconcileEnabled) {
+        this.reconcileEnabled = reconcileEnabled;
+    }
+
+    public long getReconcileInterval() {
+        return reconcileInterval;
+    }
+
+    public void setReconcileInterval(long reconcileInterval) {
+        this.reconcileInterval = reconcileInterval;
+    }
+}
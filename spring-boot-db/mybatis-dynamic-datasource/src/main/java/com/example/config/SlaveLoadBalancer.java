@@ -0,0 +1,151 @@
+package com.example.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 从库负载均衡器
+ * 使用平滑加权轮询算法（Smooth Weighted Round-Robin）在多个从库之间分配读请求
+ *
+ * 例如权重 {a:5, b:1, c:1}，7次选择的结果为 a a b a c a a，
+ * 高权重从库不会被连续集中选中，流量分布更平滑
+ */
+public class SlaveLoadBalancer {
+
+    /**
+     * 从库节点
+     */
+    private static final class Node {
+        private final String key;
+        private final int weight;
+        private int currentWeight;
+        private boolean available = true;
+
+        private Node(String key, int weight) {
+            this.key = key;
+            this.weight = weight;
+        }
+    }
+
+    private final List<Node> nodes = new ArrayList<>();
+
+    /**
+     * 添加从库节点
+     */
+    public synchronized void addNode(String key, int weight) {
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException("从库名称不能为空");
+        }
+        if (weight <= 0) {
+            throw new IllegalArgumentException("从库权重必须大于0: " + key);
+        }
+        if (findNode(key) != null) {
+            throw new IllegalArgumentException("从库已存在: " + key);
+        }
+        nodes.add(new Node(key, weight));
+    }
+
+    /**
+     * 移除从库节点，移除后不再参与选择
+     *
+     * @return 节点是否存在
+     */
+    public synchronized boolean removeNode(String key) {
+        Node node = findNode(key);
+        if (node == null) {
+            return false;
+        }
+        nodes.remove(node);
+        // 重置剩余节点的当前权重，避免移除后分布出现偏斜
+        for (Node remaining : nodes) {
+            remaining.currentWeight = 0;
+        }
+        return true;
+    }
+
+    /**
+     * 选择一个从库
+     *
+     * 不可用的从库不参与选择
+     *
+     * @return 从库名称，没有可用从库时返回null
+     */
+    public synchronized String select() {
+        Node best = null;
+        int totalWeight = 0;
+        for (Node node : nodes) {
+            if (!node.available) {
+                continue;
+            }
+            node.currentWeight += node.weight;
+            totalWeight += node.weight;
+            if (best == null || node.currentWeight > best.currentWeight) {
+                best = node;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        best.currentWeight -= totalWeight;
+        return best.key;
+    }
+
+    /**
+     * 设置从库是否可用
+     * 健康检查失败的从库会被摘除，恢复后重新加入轮询
+     *
+     * @return 状态是否发生变化
+     */
+    public synchronized boolean setAvailable(String key, boolean available) {
+        Node node = findNode(key);
+        if (node == null || node.available == available) {
+            return false;
+        }
+        node.available = available;
+        node.currentWeight = 0;
+        return true;
+    }
+
+    /**
+     * 判断是否为已注册的从库
+     */
+    public synchronized boolean contains(String key) {
+        return findNode(key) != null;
+    }
+
+    /**
+     * 获取所有可用从库的名称
+     */
+    public synchronized List<String> getAvailableKeys() {
+        List<String> keys = new ArrayList<>();
+        for (Node node : nodes) {
+            if (node.available) {
+                keys.add(node.key);
+            }
+        }
+        return Collections.unmodifiableList(keys);
+    }
+
+    /**
+     * 获取所有从库的权重配置
+     */
+    public synchronized Map<String, Integer> getWeights() {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (Node node : nodes) {
+            weights.put(node.key, node.weight);
+        }
+        return Collections.unmodifiableMap(weights);
+    }
+
+    private Node findNode(String key) {
+        for (Node node : nodes) {
+            if (node.key.equals(key)) {
+                return node;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake风格的订单号生成器
+ *
+ * ID由 41位毫秒时间戳（自2024-01-01起）+ 10位节点号 + 12位毫秒内序号 组成，订单号为 前缀 + ID。
+ * 时间戳和序号合并保存在一个AtomicLong中，通过CAS递增，不加锁、不需要实例间协调：
+ * - 时钟前进时从新的毫秒、序号0开始
+ * - 同一毫秒内序号用完，或时钟回拨时，在上一次的时间戳上继续递增（序号溢出时进位到下一毫秒），
+ *   生成的ID始终单调递增，不会重复也不会阻塞等待
+ *
+ * 多个实例必须配置不同的节点号。进程重启前如果时钟回拨超过上次运行期间借用的时间，可能产生重复ID，
+ * 数据库上订单号的唯一约束会拒绝这种插入
+ */
+public class SnowflakeOrderNoGenerator implements OrderNoGenerator {
+
+    /**
+     * 时间戳起点：2024-01-01T00:00:00Z
+     */
+    static final long EPOCH = 1704067200000L;
+
+    static final int NODE_BITS = 10;
+
+    static final int SEQUENCE_BITS = 12;
+
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final String prefix;
+
+    private final long nodeId;
+
+    private final LongSupplier clock;
+
+    /**
+     * 最近一次生成的 (时间戳 << SEQUENCE_BITS) | 序号
+     */
+    private final AtomicLong lastState = new AtomicLong();
+
+    public SnowflakeOrderNoGenerator(String prefix, long nodeId) {
+        this(prefix, nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeOrderNoGenerator(String prefix, long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("节点号必须在0到" + MAX_NODE_ID + "之间: " + nodeId);
+        }
+        this.prefix = prefix != null ? prefix : "";
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextOrderNo() {
+        return prefix + nextId();
+    }
+
+    /**
+     * 生成下一个ID
+     */
+    public long nextId() {
+        long last;
+        long next;
+        do {
+            last = lastState.get();
+            long timestamp = clock.getAsLong() - EPOCH;
+            next = timestamp > (last >>> SEQUENCE_BITS) ? timestamp << SEQUENCE_BITS : last + 1;
+        } while (!lastState.compareAndSet(last, next));
+        return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)
+                | nodeId << SEQUENCE_BITS
+                | next & SEQUENCE_MASK;
+    }
+}
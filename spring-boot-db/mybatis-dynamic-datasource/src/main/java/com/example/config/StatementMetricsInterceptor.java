@@ -0,0 +1,59 @@
+package com.example.config;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * SQL执行耗时统计插件
+ *
+ * 拦截Executor的查询和更新，按实际使用的数据源和Mapper方法记录耗时。
+ * 实际数据源取自DynamicDataSource最近一次为当前线程分配连接时的路由结果，
+ * 事务内的语句使用事务开始时获取的连接，同样能对应到正确的数据源
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "queryCursor",
+                args = {MappedStatement.class, Object.class, RowBounds.class})
+})
+public class StatementMetricsInterceptor implements Interceptor {
+
+    private final DataSourceMetrics dataSourceMetrics;
+
+    public StatementMetricsInterceptor(DataSourceMetrics dataSourceMetrics) {
+        this.dataSourceMetrics = dataSourceMetrics;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+        long startTime = System.nanoTime();
+        boolean success = false;
+        try {
+            Object result = invocation.proceed();
+            success = true;
+            return result;
+        } finally {
+            // 游标查询只统计打开游标的耗时，不包含逐行读取
+            dataSourceMetrics.recordStatement(DataSourceContextHolder.getRoutedKey(),
+                    statementName(mappedStatement.getId()), success, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * com.example.mapper.CustomerMapper.selectById -> CustomerMapper.selectById
+     */
+    private String statementName(String id) {
+        int methodIndex = id.lastIndexOf('.');
+        int typeIndex = methodIndex > 0 ? id.lastIndexOf('.', methodIndex - 1) : -1;
+        return typeIndex >= 0 ? id.substring(typeIndex + 1) : id;
+    }
+}
@@ -1,16 +1,27 @@
 package com.example.controller;
 
 import com.example.domain.Customer;
+import com.example.domain.PageCursor;
 import com.example.service.CustomerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * 客户控制器
@@ -21,9 +32,31 @@ import java.util.Map;
 @Validated
 public class CustomerController {
 
+    /**
+     * CSV导出的列
+     */
+    private static final Map<String, Function<Customer, Object>> EXPORT_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        EXPORT_COLUMNS.put("id", Customer::getId);
+        EXPORT_COLUMNS.put("customerCode", Customer::getCustomerCode);
+        EXPORT_COLUMNS.put("customerName", Customer::getCustomerName);
+        EXPORT_COLUMNS.put("email", Customer::getEmail);
+        EXPORT_COLUMNS.put("phone", Customer::getPhone);
+        EXPORT_COLUMNS.put("age", Customer::getAge);
+        EXPORT_COLUMNS.put("address", Customer::getAddress);
+        EXPORT_COLUMNS.put("status", Customer::getStatus);
+        EXPORT_COLUMNS.put("remark", Customer::getRemark);
+        EXPORT_COLUMNS.put("createTime", Customer::getCreateTime);
+        EXPORT_COLUMNS.put("updateTime", Customer::getUpdateTime);
+    }
+
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * 根据ID查询客户
      */
@@ -57,6 +90,34 @@ public class CustomerController {
         return ResponseEntity.ok(customers);
     }
 
+    /**
+     * 流式导出所有客户
+     * 通过Cursor逐行读取并直接写入响应输出流，内存占用与数据量无关
+     *
+     * @param format 导出格式：jsonl（每行一个JSON对象）或csv
+     */
+    @GetMapping("/export")
+    public void exportCustomers(@RequestParam(defaultValue = "jsonl") String format,
+                            HttpServletResponse response) throws IOException {
+        ExportWriter.Format exportFormat;
+        try {
+            exportFormat = ExportWriter.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=customers." + exportFormat.getExtension());
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        ExportWriter<Customer> exportWriter = new ExportWriter<>(exportFormat, writer, objectMapper, EXPORT_COLUMNS);
+        customerService.exportCustomers(exportWriter);
+        exportWriter.finish();
+    }
+
     /**
      * 根据状态查询客户
      */
@@ -79,11 +140,19 @@ public class CustomerController {
 
     /**
      * 分页查询客户
+     *
+     * 传入after参数时使用游标分页：按 (create_time, id) 倒序从游标位置之后取pageSize条，
+     * 不统计总数，深翻页与首页代价相同；after为空字符串表示查询第一页，
+     * 后续页使用上一次响应中的nextCursor。未传after时保持原有的页码分页
      */
     @GetMapping("/page")
     public ResponseEntity<Map<String, Object>> getCustomersByPage(
             @RequestParam(defaultValue = "1") Integer pageNum,
-            @RequestParam(defaultValue = "10") Integer pageSize) {
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(required = false) String after) {
+        if (after != null) {
+            return getCustomersAfter(after, pageSize);
+        }
         List<Customer> customers = customerService.getCustomersByPage(pageNum, pageSize);
         int totalCount = customerService.getTotalCount();
         
@@ -97,6 +166,35 @@ public class CustomerController {
         return ResponseEntity.ok(result);
     }
 
+    private ResponseEntity<Map<String, Object>> getCustomersAfter(String after, Integer pageSize) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("页大小必须为正数");
+            }
+            PageCursor cursor = after.isEmpty() ? null : PageCursor.decode(after);
+            // 多取一条用于判断是否还有下一页
+            List<Customer> customers = customerService.getCustomersAfter(cursor, pageSize + 1);
+            boolean hasMore = customers.size() > pageSize;
+            String nextCursor = null;
+            if (hasMore) {
+                customers = customers.subList(0, pageSize);
+                Customer last = customers.get(pageSize - 1);
+                nextCursor = new PageCursor(last.getCreateTime(), last.getId()).encode();
+            }
+
+            result.put("customers", customers);
+            result.put("pageSize", pageSize);
+            result.put("hasMore", hasMore);
+            result.put("nextCursor", nextCursor);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(result);
+        }
+    }
+
     /**
      * 统计客户总数
      */
@@ -106,6 +204,15 @@ public class CustomerController {
         return ResponseEntity.ok(count);
     }
 
+    /**
+     * 按状态分组统计客户数
+     */
+    @GetMapping("/count/status")
+    public ResponseEntity<Map<String, Integer>> getCountGroupByStatus() {
+        Map<String, Integer> statusCounts = customerService.getCountGroupByStatus();
+        return ResponseEntity.ok(statusCounts);
+    }
+
     /**
      * 根据状态统计客户数
      */
@@ -2,6 +2,10 @@ package com.example.controller;
 
 import com.example.annotation.DataSource;
 import com.example.annotation.DataSourceType;
+import com.example.config.DataSourceHealthChecker;
+import com.example.config.DynamicDataSource;
+import com.example.config.SlaveLoadBalancer;
+import com.example.domain.StatusCount;
 import com.example.service.CustomerService;
 import com.example.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -27,6 +32,12 @@ public class DynamicDataSourceController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private DataSourceHealthChecker dataSourceHealthChecker;
+
+    @Autowired
+    private DynamicDataSource dynamicDataSource;
+
     /**
      * 获取系统概览信息
      * 演示同时从主库和从库获取数据
@@ -37,10 +48,15 @@ public class DynamicDataSourceController {
         
         // 从从库获取统计信息（读操作）
         Map<String, Object> readStats = new HashMap<>();
-        readStats.put("totalCustomers", customerService.getTotalCount());
-        readStats.put("activeCustomers", customerService.getCountByStatus("ACTIVE"));
-        readStats.put("totalOrders", orderService.getTotalCount());
-        readStats.put("pendingOrders", orderService.getCountByStatus("PENDING"));
+        // 每张表按状态分组统计一次，总数和各状态数量都从分组结果中得到
+        Map<String, Integer> customerStatusCounts = customerService.getCountGroupByStatus();
+        Map<String, Integer> orderStatusCounts = orderService.getCountGroupByStatus();
+        readStats.put("totalCustomers", StatusCount.total(customerStatusCounts));
+        readStats.put("activeCustomers", customerStatusCounts.getOrDefault("ACTIVE", 0));
+        readStats.put("customerStatusCounts", customerStatusCounts);
+        readStats.put("totalOrders", StatusCount.total(orderStatusCounts));
+        readStats.put("pendingOrders", orderStatusCounts.getOrDefault("PENDING", 0));
+        readStats.put("orderStatusCounts", orderStatusCounts);
         readStats.put("dataSource", "slave");
         
         overview.put("statistics", readStats);
@@ -118,75 +134,40 @@ public class DynamicDataSourceController {
 
     /**
      * 数据源健康检查
-     * 检查主库和从库的连接状态
+     * 校验主库和所有从库的连接状态，并同步更新从库的可用状态
      */
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> checkDataSourceHealth() {
         Map<String, Object> healthStatus = new HashMap<>();
-        
-        try {
-            // 检查主库连接
-            Map<String, Object> masterStatus = checkMasterHealth();
-            healthStatus.put("masterDataSource", masterStatus);
-        } catch (Exception e) {
-            Map<String, Object> masterStatus = new HashMap<>();
-            masterStatus.put("status", "DOWN");
-            masterStatus.put("error", e.getMessage());
-            masterStatus.put("message", "主库连接异常");
-            healthStatus.put("masterDataSource", masterStatus);
-        }
-        
-        try {
-            // 检查从库连接
-            Map<String, Object> slaveStatus = checkSlaveHealth();
-            healthStatus.put("slaveDataSource", slaveStatus);
-        } catch (Exception e) {
-            Map<String, Object> slaveStatus = new HashMap<>();
-            slaveStatus.put("status", "DOWN");
-            slaveStatus.put("error", e.getMessage());
-            slaveStatus.put("message", "从库连接异常");
-            healthStatus.put("slaveDataSource", slaveStatus);
+        Map<String, Boolean> checkResult = dataSourceHealthChecker.checkHealth();
+        SlaveLoadBalancer slaveLoadBalancer = dynamicDataSource.getSlaveLoadBalancer();
+        
+        Map<String, Object> slaveStatus = new LinkedHashMap<>();
+        Map<String, Object> drainedStatus = new LinkedHashMap<>();
+        for (Map.Entry<String, Boolean> entry : checkResult.entrySet()) {
+            Map<String, Object> status = new HashMap<>();
+            status.put("status", entry.getValue() ? "UP" : "DOWN");
+            status.put("dataSource", entry.getKey());
+            
+            if (DataSourceType.MASTER.getValue().equals(entry.getKey())) {
+                status.put("message", entry.getValue() ? "主库连接正常" : "主库连接异常");
+                healthStatus.put("masterDataSource", status);
+            } else if (slaveLoadBalancer.contains(entry.getKey())) {
+                status.put("message", entry.getValue() ? "从库连接正常" : "从库连接异常，已从负载均衡中摘除");
+                slaveStatus.put(entry.getKey(), status);
+            } else {
+                // 通过datasources端点摘除的从库，连接池仍在，但不再分配读请求
+                status.put("message", "从库已摘除，不分配读请求");
+                drainedStatus.put(entry.getKey(), status);
+            }
         }
         
+        healthStatus.put("slaveDataSources", slaveStatus);
+        healthStatus.put("drainedDataSources", drainedStatus);
+        healthStatus.put("availableSlaves", slaveLoadBalancer.getAvailableKeys());
         return ResponseEntity.ok(healthStatus);
     }
 
-    /**
-     * 检查主库健康状态
-     */
-    @DataSource(DataSourceType.MASTER)
-    private Map<String, Object> checkMasterHealth() {
-        Map<String, Object> status = new HashMap<>();
-        
-        // 执行简单查询测试主库连接
-        int customerCount = customerService.getTotalCount();
-        
-        status.put("status", "UP");
-        status.put("totalRecords", customerCount);
-        status.put("message", "主库连接正常");
-        status.put("dataSource", "master");
-        
-        return status;
-    }
-
-    /**
-     * 检查从库健康状态
-     */
-    @DataSource(DataSourceType.SLAVE)
-    private Map<String, Object> checkSlaveHealth() {
-        Map<String, Object> status = new HashMap<>();
-        
-        // 执行简单查询测试从库连接
-        int orderCount = orderService.getTotalCount();
-        
-        status.put("status", "UP");
-        status.put("totalRecords", orderCount);
-        status.put("message", "从库连接正常");
-        status.put("dataSource", "slave");
-        
-        return status;
-    }
-
     /**
      * 获取动态数据源配置信息
      */
@@ -259,6 +240,7 @@ public class DynamicDataSourceController {
         performance.put("slavePerformance", slavePerf);
         performance.put("masterPerformance", masterPerf);
         performance.put("note", "读写分离可以提高查询性能，减轻主库压力");
+        performance.put("metrics", "/actuator/metrics/dynamic.datasource.statement");
         
         return ResponseEntity.ok(performance);
     }
@@ -0,0 +1,145 @@
+package com.example.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 导出数据写入器
+ *
+ * 逐行把对象写成JSON Lines或CSV，配合Cursor使用时不在内存中积累数据
+ *
+ * @param <T> 导出的对象类型
+ */
+final class ExportWriter<T> implements Consumer<T> {
+
+    /**
+     * 导出格式
+     */
+    enum Format {
+
+        JSONL("application/x-ndjson", "jsonl"),
+
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        String getContentType() {
+            return contentType;
+        }
+
+        String getExtension() {
+            return extension;
+        }
+
+        /**
+         * 根据请求参数解析导出格式
+         *
+         * @throws IllegalArgumentException 不支持的格式
+         */
+        static Format of(String value) {
+            for (Format format : values()) {
+                if (format.extension.equals(value.toLowerCase(Locale.ROOT))) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("不支持的导出格式: " + value + "，可选值: jsonl, csv");
+        }
+    }
+
+    private final Format format;
+
+    private final Writer writer;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * CSV列名及取值方法，按插入顺序输出
+     */
+    private final Map<String, Function<T, Object>> columns;
+
+    private boolean headerWritten;
+
+    ExportWriter(Format format, Writer writer, ObjectMapper objectMapper, Map<String, Function<T, Object>> columns) {
+        this.format = format;
+        this.writer = writer;
+        this.objectMapper = objectMapper;
+        this.columns = columns;
+    }
+
+    @Override
+    public void accept(T row) {
+        try {
+            writeHeaderIfNecessary();
+            if (format == Format.JSONL) {
+                writer.write(toJson(row));
+            } else {
+                writeCsvLine(columns.values().stream().map(column -> column.apply(row)).toArray());
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 结束导出，没有数据时CSV也输出表头
+     */
+    void finish() throws IOException {
+        writeHeaderIfNecessary();
+        writer.flush();
+    }
+
+    private void writeHeaderIfNecessary() throws IOException {
+        if (headerWritten) {
+            return;
+        }
+        headerWritten = true;
+        if (format == Format.CSV) {
+            writeCsvLine(columns.keySet().toArray());
+            writer.write('\n');
+        }
+    }
+
+    private String toJson(T row) {
+        try {
+            return objectMapper.writeValueAsString(row);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("导出数据序列化失败", e);
+        }
+    }
+
+    private void writeCsvLine(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values[i]));
+        }
+    }
+
+    private static String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
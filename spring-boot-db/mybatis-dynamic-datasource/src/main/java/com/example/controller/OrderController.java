@@ -1,17 +1,29 @@
 package com.example.controller;
 
 import com.example.domain.Order;
+import com.example.domain.PageCursor;
+import com.example.domain.StatusCount;
 import com.example.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * 订单控制器
@@ -22,9 +34,32 @@ import java.util.Map;
 @Validated
 public class OrderController {
 
+    /**
+     * CSV导出的列
+     */
+    private static final Map<String, Function<Order, Object>> EXPORT_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        EXPORT_COLUMNS.put("id", Order::getId);
+        EXPORT_COLUMNS.put("orderNo", Order::getOrderNo);
+        EXPORT_COLUMNS.put("customerId", Order::getCustomerId);
+        EXPORT_COLUMNS.put("customerName", Order::getCustomerName);
+        EXPORT_COLUMNS.put("totalAmount", Order::getTotalAmount);
+        EXPORT_COLUMNS.put("status", Order::getStatus);
+        EXPORT_COLUMNS.put("paymentMethod", Order::getPaymentMethod);
+        EXPORT_COLUMNS.put("paymentTime", Order::getPaymentTime);
+        EXPORT_COLUMNS.put("shippingAddress", Order::getShippingAddress);
+        EXPORT_COLUMNS.put("remark", Order::getRemark);
+        EXPORT_COLUMNS.put("createTime", Order::getCreateTime);
+        EXPORT_COLUMNS.put("updateTime", Order::getUpdateTime);
+    }
+
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * 根据ID查询订单
      */
@@ -58,6 +93,34 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * 流式导出所有订单
+     * 通过Cursor逐行读取并直接写入响应输出流，内存占用与数据量无关
+     *
+     * @param format 导出格式：jsonl（每行一个JSON对象）或csv
+     */
+    @GetMapping("/export")
+    public void exportOrders(@RequestParam(defaultValue = "jsonl") String format,
+                            HttpServletResponse response) throws IOException {
+        ExportWriter.Format exportFormat;
+        try {
+            exportFormat = ExportWriter.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=orders." + exportFormat.getExtension());
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        ExportWriter<Order> exportWriter = new ExportWriter<>(exportFormat, writer, objectMapper, EXPORT_COLUMNS);
+        orderService.exportOrders(exportWriter);
+        exportWriter.finish();
+    }
+
     /**
      * 根据客户ID查询订单
      */
@@ -78,11 +141,19 @@ public class OrderController {
 
     /**
      * 分页查询订单
+     *
+     * 传入after参数时使用游标分页：按 (create_time, id) 倒序从游标位置之后取pageSize条，
+     * 不统计总数，深翻页与首页代价相同；after为空字符串表示查询第一页，
+     * 后续页使用上一次响应中的nextCursor。未传after时保持原有的页码分页
      */
     @GetMapping("/page")
     public ResponseEntity<Map<String, Object>> getOrdersByPage(
             @RequestParam(defaultValue = "1") Integer pageNum,
-            @RequestParam(defaultValue = "10") Integer pageSize) {
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(required = false) String after) {
+        if (after != null) {
+            return getOrdersAfter(after, pageSize);
+        }
         List<Order> orders = orderService.getOrdersByPage(pageNum, pageSize);
         int totalCount = orderService.getTotalCount();
         
@@ -97,6 +168,36 @@ public class OrderController {
         return ResponseEntity.ok(result);
     }
 
+    private ResponseEntity<Map<String, Object>> getOrdersAfter(String after, Integer pageSize) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("页大小必须为正数");
+            }
+            PageCursor cursor = after.isEmpty() ? null : PageCursor.decode(after);
+            // 多取一条用于判断是否还有下一页
+            List<Order> orders = orderService.getOrdersAfter(cursor, pageSize + 1);
+            boolean hasMore = orders.size() > pageSize;
+            String nextCursor = null;
+            if (hasMore) {
+                orders = orders.subList(0, pageSize);
+                Order last = orders.get(pageSize - 1);
+                nextCursor = new PageCursor(last.getCreateTime(), last.getId()).encode();
+            }
+
+            result.put("orders", orders);
+            result.put("pageSize", pageSize);
+            result.put("hasMore", hasMore);
+            result.put("nextCursor", nextCursor);
+            result.put("dataSource", "slave"); // 查询操作使用从库
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(result);
+        }
+    }
+
     /**
      * 统计订单总数
      */
@@ -109,6 +210,20 @@ public class OrderController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * 按状态分组统计订单数
+     * 一次查询返回所有状态的数量，无需按状态逐个调用 /count/status/{status}
+     */
+    @GetMapping("/count/status")
+    public ResponseEntity<Map<String, Object>> getCountGroupByStatus() {
+        Map<String, Integer> statusCounts = orderService.getCountGroupByStatus();
+        Map<String, Object> response = new HashMap<>();
+        response.put("statusCounts", statusCounts);
+        response.put("totalCount", StatusCount.total(statusCounts));
+        response.put("dataSource", "slave");
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * 根据状态统计订单数
      */
@@ -1,6 +1,5 @@
 package com.example.domain;
 
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
@@ -14,7 +13,6 @@ public class Order {
     
     private Long id;
     
-    @NotBlank(message = "订单编号不能为空")
     private String orderNo;
     
     @NotNull(message = "客户ID不能为空")
@@ -0,0 +1,88 @@
+package com.example.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * 游标分页（keyset分页）的位置
+ *
+ * 记录上一页最后一行的 (create_time, id)，下一页从该位置之后继续查询，
+ * 查询代价与页码深度无关。对外以不透明字符串传递，客户端不应解析其内容
+ */
+public final class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createTime;
+
+    private final Long id;
+
+    public PageCursor(LocalDateTime createTime, Long id) {
+        if (createTime == null || id == null) {
+            throw new IllegalArgumentException("游标的创建时间和ID不能为空");
+        }
+        this.createTime = createTime;
+        this.id = id;
+    }
+
+    /**
+     * 解析客户端传入的游标
+     *
+     * @param value encode生成的游标字符串
+     * @throws IllegalArgumentException 游标格式不正确时
+     */
+    public static PageCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            if (index <= 0) {
+                throw new IllegalArgumentException("无效的分页游标: " + value);
+            }
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, index)),
+                    Long.valueOf(raw.substring(index + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("无效的分页游标: " + value, e);
+        }
+    }
+
+    /**
+     * 生成对外传递的游标字符串
+     */
+    public String encode() {
+        String raw = createTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getCreateTime() {
+        return createTime;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PageCursor)) {
+            return false;
+        }
+        PageCursor that = (PageCursor) o;
+        return createTime.equals(that.createTime) && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(createTime, id);
+    }
+
+    @Override
+    public String toString() {
+        return "PageCursor{createTime=" + createTime + ", id=" + id + '}';
+    }
+}
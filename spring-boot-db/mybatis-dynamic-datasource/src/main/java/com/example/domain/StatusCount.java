@@ -0,0 +1,73 @@
+package com.example.domain;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按状态分组的统计结果
+ * 对应 SELECT status, COUNT(*) ... GROUP BY status 的一行
+ */
+public class StatusCount {
+
+    /**
+     * 状态为空的记录在统计结果中使用的键
+     */
+    public static final String UNKNOWN_STATUS = "UNKNOWN";
+
+    private String status;
+
+    private Integer count;
+
+    public StatusCount() {
+    }
+
+    public StatusCount(String status, Integer count) {
+        this.status = status;
+        this.count = count;
+    }
+
+    /**
+     * 把分组结果转换为 状态 -> 数量 的映射，保持查询返回的顺序
+     */
+    public static Map<String, Integer> toMap(List<StatusCount> statusCounts) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (StatusCount statusCount : statusCounts) {
+            String status = statusCount.getStatus() != null ? statusCount.getStatus() : UNKNOWN_STATUS;
+            result.merge(status, statusCount.getCount(), Integer::sum);
+        }
+        return result;
+    }
+
+    /**
+     * 统计结果中所有状态的数量之和
+     */
+    public static int total(Map<String, Integer> statusCounts) {
+        int total = 0;
+        for (Integer count : statusCounts.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+
+    @Override
+    public String toString() {
+        return "StatusCount{status='" + status + "', count=" + count + '}';
+    }
+}
@@ -3,9 +3,14 @@ package com.example.mapper;
 import com.example.annotation.DataSource;
 import com.example.annotation.DataSourceType;
 import com.example.domain.Customer;
+import com.example.domain.StatusCount;
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -35,6 +40,32 @@ public interface CustomerMapper {
     })
     Customer selectById(Long id);
 
+    /**
+     * 根据一组ID查询客户 - 从库
+     * 不存在的ID不返回，结果顺序不保证与ID顺序一致
+     */
+    @DataSource(DataSourceType.SLAVE)
+    @Select("<script>" +
+            "SELECT * FROM customers WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>" +
+            "#{id}" +
+            "</foreach>" +
+            "</script>")
+    @Results({
+        @Result(property = "id", column = "id", id = true),
+        @Result(property = "customerCode", column = "customer_code"),
+        @Result(property = "customerName", column = "customer_name"),
+        @Result(property = "email", column = "email"),
+        @Result(property = "phone", column = "phone"),
+        @Result(property = "age", column = "age"),
+        @Result(property = "address", column = "address"),
+        @Result(property = "status", column = "status"),
+        @Result(property = "remark", column = "remark"),
+        @Result(property = "createTime", column = "create_time"),
+        @Result(property = "updateTime", column = "update_time")
+    })
+    List<Customer> selectByIds(@Param("ids") List<Long> ids);
+
     /**
      * 根据客户编码查询客户 - 从库
      */
@@ -74,6 +105,37 @@ public interface CustomerMapper {
     })
     List<Customer> selectAll();
 
+    /**
+     * 流式查询所有客户 - 从库（自动判断）
+     * 按主键顺序读取，每次从数据库取fetchSize行（MySQL需开启useCursorFetch），需要在事务内遍历并关闭Cursor
+     */
+    @Select("SELECT * FROM customers ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 1000)
+    @Results({
+        @Result(property = "id", column = "id", id = true),
+        @Result(property = "customerCode", column = "customer_code"),
+        @Result(property = "customerName", column = "customer_name"),
+        @Result(property = "email", column = "email"),
+        @Result(property = "phone", column = "phone"),
+        @Result(property = "age", column = "age"),
+        @Result(property = "address", column = "address"),
+        @Result(property = "status", column = "status"),
+        @Result(property = "remark", column = "remark"),
+        @Result(property = "createTime", column = "create_time"),
+        @Result(property = "updateTime", column = "update_time")
+    })
+    Cursor<Customer> selectAllCursor();
+
+    /**
+     * 读取所有客户编码 - 主库
+     * 用于重建编码存在性过滤器，逐行交给ResultHandler处理，不在内存中积累结果
+     */
+    @DataSource(DataSourceType.MASTER)
+    @Select("SELECT customer_code FROM customers")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 1000)
+    @ResultType(String.class)
+    void selectAllCustomerCodes(ResultHandler<String> handler);
+
     /**
      * 根据状态查询客户 - 从库（自动判断）
      */
@@ -99,7 +161,7 @@ public interface CustomerMapper {
     @Select("<script>" +
             "SELECT * FROM customers WHERE 1=1 " +
             "<if test='minAge != null'> AND age >= #{minAge} </if>" +
-            "<if test='maxAge != null'> AND age <= #{maxAge} </if>" +
+            "<if test='maxAge != null'> AND age &lt;= #{maxAge} </if>" +
             "ORDER BY age ASC" +
             "</script>")
     @Results({
@@ -136,6 +198,35 @@ public interface CustomerMapper {
     })
     List<Customer> selectByPage(@Param("offset") Integer offset, @Param("limit") Integer limit);
 
+    /**
+     * 游标分页查询客户 - 从库（自动判断）
+     * 按 (create_time, id) 倒序，从游标位置之后取数据，依赖 (create_time, id) 联合索引
+     */
+    @Select("<script>" +
+            "SELECT * FROM customers" +
+            "<where>" +
+            "<if test='createTime != null'>" +
+            "create_time &lt; #{createTime} OR (create_time = #{createTime} AND id &lt; #{id})" +
+            "</if>" +
+            "</where>" +
+            " ORDER BY create_time DESC, id DESC LIMIT #{limit}" +
+            "</script>")
+    @Results({
+        @Result(property = "id", column = "id", id = true),
+        @Result(property = "customerCode", column = "customer_code"),
+        @Result(property = "customerName", column = "customer_name"),
+        @Result(property = "email", column = "email"),
+        @Result(property = "phone", column = "phone"),
+        @Result(property = "age", column = "age"),
+        @Result(property = "address", column = "address"),
+        @Result(property = "status", column = "status"),
+        @Result(property = "remark", column = "remark"),
+        @Result(property = "createTime", column = "create_time"),
+        @Result(property = "updateTime", column = "update_time")
+    })
+    List<Customer> selectPageAfter(@Param("createTime") LocalDateTime createTime, @Param("id") Long id,
+                                     @Param("limit") Integer limit);
+
     /**
      * 统计客户总数 - 从库（自动判断）
      */
@@ -148,6 +239,17 @@ public interface CustomerMapper {
     @Select("SELECT COUNT(*) FROM customers WHERE status = #{status}")
     int countByStatus(String status);
 
+    /**
+     * 按状态分组统计客户数 - 从库（自动判断）
+     * 一次查询返回所有状态的数量，替代按状态逐个COUNT
+     */
+    @Select("SELECT status, COUNT(*) AS total FROM customers GROUP BY status")
+    @Results({
+        @Result(property = "status", column = "status"),
+        @Result(property = "count", column = "total")
+    })
+    List<StatusCount> countGroupByStatus();
+
     /**
      * 插入客户 - 主库（自动判断）
      */
@@ -3,10 +3,14 @@ package com.example.mapper;
 import com.example.annotation.DataSource;
 import com.example.annotation.DataSourceType;
 import com.example.domain.Order;
+import com.example.domain.StatusCount;
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -37,6 +41,33 @@ public interface OrderMapper {
     })
     Order selectById(Long id);
 
+    /**
+     * 根据一组ID查询订单 - 从库
+     * 不存在的ID不返回，结果顺序不保证与ID顺序一致
+     */
+    @DataSource(DataSourceType.SLAVE)
+    @Select("<script>" +
+            "SELECT * FROM orders WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>" +
+            "#{id}" +
+            "</foreach>" +
+            "</script>")
+    @Results({
+        @Result(property = "id", column = "id", id = true),
+        @Result(property = "orderNo", column = "order_no"),
+        @Result(property = "customerId", column = "customer_id"),
+        @Result(property = "customerName", column = "customer_name"),
+        @Result(property = "totalAmount", column = "total_amount"),
+        @Result(property = "status", column = "status"),
+        @Result(property = "paymentMethod", column = "payment_method"),
+        @Result(property = "paymentTime", column = "payment_time"),
+        @Result(property = "shippingAddress", column = "shipping_address"),
+        @Result(property = "remark", column = "remark"),
+        @Result(property = "createTime", column = "create_time"),
+        @Result(property = "updateTime", column = "update_time")
+    })
+    List<Order> selectByIds(@Param("ids") List<Long> ids);
+
     /**
      * 根据订单号查询订单 - 从库
      */
@@ -78,6 +109,28 @@ public interface OrderMapper {
     })
     List<Order> selectAll();
 
+    /**
+     * 流式查询所有订单 - 从库（自动判断）
+     * 按主键顺序读取，每次从数据库取fetchSize行（MySQL需开启useCursorFetch），需要在事务内遍历并关闭Cursor
+     */
+    @Select("SELECT * FROM orders ORDER BY id")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 1000)
+    @Results({
+        @Result(property = "id", column = "id", id = true),
+        @Result(property = "orderNo", column = "order_no"),
+        @Result(property = "customerId", column = "customer_id"),
+        @Result(property = "customerName", column = "customer_name"),
+        @Result(property = "totalAmount", column = "total_amount"),
+        @Result(property = "status", column = "status"),
+        @Result(property = "paymentMethod", column = "payment_method"),
+        @Result(property = "paymentTime", column = "payment_time"),
+        @Result(property = "shippingAddress", column = "shipping_address"),
+        @Result(property = "remark", column = "remark"),
+        @Result(property = "createTime", column = "create_time"),
+        @Result(property = "updateTime", column = "update_time")
+    })
+    Cursor<Order> selectAllCursor();
+
     /**
      * 根据客户ID查询订单 - 从库（自动判断）
      */
@@ -124,7 +177,7 @@ public interface OrderMapper {
     @Select("<script>" +
             "SELECT * FROM orders WHERE 1=1 " +
             "<if test='minAmount != null'> AND total_amount >= #{minAmount} </if>" +
-            "<if test='maxAmount != null'> AND total_amount <= #{maxAmount} </if>" +
+            "<if test='maxAmount != null'> AND total_amount &lt;= #{maxAmount} </if>" +
             "ORDER BY total_amount DESC" +
             "</script>")
     @Results({
@@ -163,6 +216,36 @@ public interface OrderMapper {
     })
     List<Order> selectByPage(@Param("offset") Integer offset, @Param("limit") Integer limit);
 
+    /**
+     * 游标分页查询订单 - 从库（自动判断）
+     * 按 (create_time, id) 倒序，从游标位置之后取数据，依赖 (create_time, id) 联合索引
+     */
+    @Select("<script>" +
+            "SELECT * FROM orders" +
+            "<where>" +
+            "<if test='createTime != null'>" +
+            "create_time &lt; #{createTime} OR (create_time = #{createTime} AND id &lt; #{id})" +
+            "</if>" +
+            "</where>" +
+            " ORDER BY create_time DESC, id DESC LIMIT #{limit}" +
+            "</script>")
+    @Results({
+        @Result(property = "id", column = "id", id = true),
+        @Result(property = "orderNo", column = "order_no"),
+        @Result(property = "customerId", column = "customer_id"),
+        @Result(property = "customerName", column = "customer_name"),
+        @Result(property = "totalAmount", column = "total_amount"),
+        @Result(property = "status", column = "status"),
+        @Result(property = "paymentMethod", column = "payment_method"),
+        @Result(property = "paymentTime", column = "payment_time"),
+        @Result(property = "shippingAddress", column = "shipping_address"),
+        @Result(property = "remark", column = "remark"),
+        @Result(property = "createTime", column = "create_time"),
+        @Result(property = "updateTime", column = "update_time")
+    })
+    List<Order> selectPageAfter(@Param("createTime") LocalDateTime createTime, @Param("id") Long id,
+                                  @Param("limit") Integer limit);
+
     /**
      * 统计订单总数 - 从库（自动判断）
      */
@@ -175,12 +258,31 @@ public interface OrderMapper {
     @Select("SELECT COUNT(*) FROM orders WHERE status = #{status}")
     int countByStatus(String status);
 
+    /**
+     * 按状态分组统计订单数 - 从库（自动判断）
+     * 一次查询返回所有状态的数量，替代按状态逐个COUNT
+     */
+    @Select("SELECT status, COUNT(*) AS total FROM orders GROUP BY status")
+    @Results({
+        @Result(property = "status", column = "status"),
+        @Result(property = "count", column = "total")
+    })
+    List<StatusCount> countGroupByStatus();
+
     /**
      * 根据客户ID统计订单数 - 从库（自动判断）
      */
     @Select("SELECT COUNT(*) FROM orders WHERE customer_id = #{customerId}")
     int countByCustomerId(Long customerId);
 
+    /**
+     * 根据客户ID查询订单ID - 主库
+     * 删除客户前读取将被级联删除的订单，用于扣减订单计数和清除订单缓存
+     */
+    @DataSource(DataSourceType.MASTER)
+    @Select("SELECT id FROM orders WHERE customer_id = #{customerId}")
+    List<Long> selectIdsByCustomerId(Long customerId);
+
     /**
      * 插入订单 - 主库（自动判断）
      */
@@ -0,0 +1,66 @@
+package com.example.mapper;
+
+import com.example.annotation.DataSource;
+import com.example.annotation.DataSourceType;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 行数计数器Mapper接口
+ * row_counter表为每张业务表保存多个槽位的计数，统计总数时对槽位求和，避免COUNT(*)全表扫描；
+ * 每次写入只更新其中一个槽位，并发写入分散在不同的行上
+ *
+ * tableName会拼接到SQL中，只允许传入RowCounterService中定义的表名
+ */
+@Repository
+public interface RowCounterMapper {
+
+    /**
+     * 查询表的行数（各槽位之和） - 从库（自动判断）
+     *
+     * @return 计数，计数器不存在时返回null
+     */
+    @Select("SELECT SUM(row_count) FROM row_counter WHERE table_name = #{tableName}")
+    Long selectRowCount(@Param("tableName") String tableName);
+
+    /**
+     * 增减表某个槽位的行数 - 主库
+     * 与业务写操作在同一事务中执行
+     *
+     * @return 更新的行数，槽位不存在时为0
+     */
+    @DataSource(DataSourceType.MASTER)
+    @Update("UPDATE row_counter SET row_count = row_count + #{delta}, update_time = NOW() " +
+            "WHERE table_name = #{tableName} AND slot = #{slot}")
+    int updateRowCount(@Param("tableName") String tableName, @Param("slot") int slot, @Param("delta") long delta);
+
+    /**
+     * 按表的实际行数校准计数 - 主库
+     * 实际行数写入0号槽位，其余槽位清零
+     *
+     * @return 更新的槽位数，计数器不存在时为0
+     */
+    @DataSource(DataSourceType.MASTER)
+    @Update("UPDATE row_counter SET row_count = CASE WHEN slot = 0 THEN (SELECT COUNT(*) FROM ${tableName}) ELSE 0 END, " +
+            "update_time = NOW() WHERE table_name = #{tableName}")
+    int reconcileRowCount(@Param("tableName") String tableName);
+
+    /**
+     * 查询表已存在的槽位 - 主库
+     */
+    @DataSource(DataSourceType.MASTER)
+    @Select("SELECT slot FROM row_counter WHERE table_name = #{tableName}")
+    List<Integer> selectSlots(@Param("tableName") String tableName);
+
+    /**
+     * 创建计数为0的槽位 - 主库
+     */
+    @DataSource(DataSourceType.MASTER)
+    @Insert("INSERT INTO row_counter (table_name, slot, row_count, update_time) VALUES (#{tableName}, #{slot}, 0, NOW())")
+    int insertSlot(@Param("tableName") String tableName, @Param("slot") int slot);
+}
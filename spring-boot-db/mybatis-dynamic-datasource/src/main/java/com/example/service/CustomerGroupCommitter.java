@@ -0,0 +1,146 @@
+package com.example.service;
+
+import com.example.annotation.DataSourceType;
+import com.example.config.BatchInsertExecutor;
+import com.example.config.DataSourceContextHolder;
+import com.example.config.ExistenceFilter;
+import com.example.config.GroupCommitProperties;
+import com.example.config.GroupCommitter;
+import com.example.domain.Customer;
+import com.example.mapper.CustomerMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 客户创建的组提交 - 主库
+ *
+ * 开启group-commit.enabled后，并发的单个客户创建在group-commit.window毫秒内合并为一次多行INSERT和一次事务提交，
+ * 行数计数器也只更新一次。自增主键在提交后回填到各自的Customer对象中。
+ *
+ * 注意事项：
+ * 1. 一组中的客户在同一事务中提交，其中一行失败时整组回滚，再逐行单独提交，各调用方只收到自己那一行的错误
+ * 2. 调用方已处于事务中时不参与组提交，直接在调用方的事务中插入，保证与调用方的其他修改一起提交或回滚
+ * 3. 开启后单个请求最多多等待一个合并窗口
+ */
+@Component
+@EnableConfigurationProperties(GroupCommitProperties.class)
+public class CustomerGroupCommitter implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerGroupCommitter.class);
+
+    private final CustomerMapper customerMapper;
+
+    private final BatchInsertExecutor batchInsertExecutor;
+
+    private final RowCounterService rowCounterService;
+
+    private final ExistenceFilter customerCodeFilter;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final GroupCommitProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private GroupCommitter<Customer> committer;
+
+    public CustomerGroupCommitter(CustomerMapper customerMapper, BatchInsertExecutor batchInsertExecutor,
+                                  RowCounterService rowCounterService,
+                                  @Qualifier("customerCodeFilter") ExistenceFilter customerCodeFilter,
+                                  PlatformTransactionManager transactionManager, GroupCommitProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.customerMapper = customerMapper;
+        this.batchInsertExecutor = batchInsertExecutor;
+        this.rowCounterService = rowCounterService;
+        this.customerCodeFilter = customerCodeFilter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        committer = new GroupCommitter<>("customer", this::insertInTransaction, customer -> {
+            // 整组回滚后，回填的主键已无效
+            customer.setId(null);
+            insertInTransaction(Collections.singletonList(customer));
+        }, properties.getWindow(), properties.getMaxGroupSize(), properties.getThreads(),
+                properties.getTimeout());
+        FunctionCounter.builder("group.commit.groups", committer, GroupCommitter::getGroupCount)
+                .tag("name", committer.getName())
+                .description("已提交的组数")
+                .register(meterRegistry);
+        FunctionCounter.builder("group.commit.records", committer, GroupCommitter::getRecordCount)
+                .tag("name", committer.getName())
+                .description("以组方式提交的记录数")
+                .register(meterRegistry);
+        FunctionCounter.builder("group.commit.fallbacks", committer, GroupCommitter::getFallbackCount)
+                .tag("name", committer.getName())
+                .description("整组失败后改为逐行提交的次数")
+                .register(meterRegistry);
+        logger.info("客户创建组提交已开启，合并窗口: {}ms，最大组大小: {}", properties.getWindow(),
+                properties.getMaxGroupSize());
+    }
+
+    /**
+     * 关闭时提交已排队的客户
+     */
+    @Override
+    public void destroy() {
+        if (committer != null) {
+            committer.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return committer != null;
+    }
+
+    /**
+     * 插入客户
+     * 开启组提交且调用方不在事务中时，与并发的其他创建合并提交，返回时已提交；
+     * 否则在调用方的事务中插入，没有事务时单独开启一个
+     *
+     * @return 插入的行数
+     */
+    public int insert(Customer customer) {
+        if (committer != null && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            committer.submit(customer);
+            return 1;
+        }
+        return insertInTransaction(Collections.singletonList(customer));
+    }
+
+    private int insertInTransaction(List<Customer> customers) {
+        DataSourceContextHolder.push(DataSourceType.MASTER);
+        try {
+            Integer rows = transactionTemplate.execute(status -> {
+                int inserted = customers.size() == 1
+                        ? customerMapper.insert(customers.get(0))
+                        : batchInsertExecutor.insert(CustomerMapper.class, customers, CustomerMapper::insert);
+                rowCounterService.increment(RowCounterService.CUSTOMERS, inserted);
+                customers.forEach(customer -> customerCodeFilter.putAfterCommit(customer.getCustomerCode()));
+                return inserted;
+            });
+            return rows != null ? rows : 0;
+        } finally {
+            DataSourceContextHolder.poll();
+        }
+    }
+}
@@ -2,16 +2,34 @@ package com.example.service;
 
 import com.example.annotation.DataSource;
 import com.example.annotation.DataSourceType;
+import com.example.config.BatchInsertExecutor;
+import com.example.config.BatchLoader;
+import com.example.config.ExistenceFilter;
+import com.example.config.LocalCache;
+import com.example.config.SingleFlight;
 import com.example.domain.Customer;
+import com.example.domain.Order;
+import com.example.domain.PageCursor;
+import com.example.domain.StatusCount;
 import com.example.mapper.CustomerMapper;
+import com.example.mapper.OrderMapper;
+import org.apache.ibatis.cursor.Cursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 客户服务类
@@ -26,77 +44,210 @@ public class CustomerService {
     @Autowired
     private CustomerMapper customerMapper;
 
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private RowCounterService rowCounterService;
+
+    @Autowired
+    private BatchInsertExecutor batchInsertExecutor;
+
+    @Autowired
+    @Qualifier("customerCache")
+    private LocalCache<Long, Customer> customerCache;
+
+    @Autowired
+    @Qualifier("customerCodeCache")
+    private LocalCache<String, Long> customerCodeCache;
+
+    /**
+     * 删除客户时级联删除的订单需要从订单缓存中清除
+     */
+    @Autowired
+    @Qualifier("orderCache")
+    private LocalCache<Long, Order> orderCache;
+
+    /**
+     * 客户编码存在性过滤器，只在创建客户前的重复检查中使用，漏判时由唯一约束拒绝
+     */
+    @Autowired
+    @Qualifier("customerCodeFilter")
+    private ExistenceFilter customerCodeFilter;
+
+    /**
+     * 不同ID的并发查询合并为一次IN查询
+     */
+    @Autowired
+    @Qualifier("customerByIdLoader")
+    private BatchLoader<Long, Customer> customerByIdLoader;
+
+    @Autowired
+    private CustomerGroupCommitter customerGroupCommitter;
+
+    /**
+     * 缓存未命中时，相同ID、相同编码的并发查询合并为一次数据库查询
+     */
+    private final SingleFlight<Long, Customer> customerByIdFlight = new SingleFlight<>();
+
+    private final SingleFlight<String, Customer> customerByCodeFlight = new SingleFlight<>();
+
     /**
-     * 根据ID查询客户 - 强制使用从库
+     * 根据ID查询客户 - 强制使用从库，优先读取本地缓存
+     * SUPPORTS不主动开启事务，缓存命中时不占用数据库连接
+     * 返回的对象是缓存中的共享实例，只能读取，需要修改时请新建对象
      */
     @DataSource(DataSourceType.SLAVE)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Customer getCustomerById(Long id) {
-        logger.info("查询客户信息，ID: {}", id);
-        return customerMapper.selectById(id);
+        logger.debug("查询客户信息，ID: {}", id);
+        return customerCache.get(id, this::loadCustomerById);
     }
 
     /**
-     * 根据客户编码查询客户 - 强制使用从库
+     * 根据客户编码查询客户 - 强制使用从库，优先读取本地缓存
+     * 返回的对象是缓存中的共享实例，只能读取
      */
     @DataSource(DataSourceType.SLAVE)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Customer getCustomerByCode(String customerCode) {
-        logger.info("查询客户信息，编码: {}", customerCode);
-        return customerMapper.selectByCustomerCode(customerCode);
+        logger.debug("查询客户信息，编码: {}", customerCode);
+        
+        // 编码缓存只保存ID，实体从ID缓存读取，编码被修改或客户被删除时重新查询
+        Long id = customerCodeCache.getIfPresent(customerCode);
+        if (id != null) {
+            Customer customer = customerCache.get(id, this::loadCustomerById);
+            if (customer != null && customerCode.equals(customer.getCustomerCode())) {
+                return customer;
+            }
+            customerCodeCache.evict(customerCode);
+        }
+        
+        Customer customer = customerByCodeFlight.execute(customerCode, customerMapper::selectByCustomerCode);
+        if (customer != null) {
+            customerCache.put(customer.getId(), customer);
+            customerCodeCache.put(customerCode, customer.getId());
+        }
+        return customer;
+    }
+
+    private Customer loadCustomerById(Long id) {
+        return customerByIdFlight.execute(id, customerByIdLoader::load);
     }
 
     /**
      * 查询所有客户 - 自动判断（使用从库）
      */
+    @Transactional(readOnly = true)
     public List<Customer> getAllCustomers() {
-        logger.info("查询所有客户信息");
+        logger.debug("查询所有客户信息");
         return customerMapper.selectAll();
     }
 
+    /**
+     * 流式导出所有客户 - 自动判断（使用从库）
+     * 通过Cursor逐行读取并交给consumer处理，内存占用与数据量无关；
+     * 遍历期间一直占用一个数据库连接
+     *
+     * @param consumer 每一行的处理逻辑，例如直接写入响应输出流
+     * @return 导出的行数
+     */
+    @Transactional(readOnly = true)
+    public int exportCustomers(Consumer<Customer> consumer) {
+        logger.info("流式导出所有客户");
+        int count = 0;
+        try (Cursor<Customer> cursor = customerMapper.selectAllCursor()) {
+            for (Customer row : cursor) {
+                consumer.accept(row);
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        logger.info("流式导出客户完成，共 {} 条", count);
+        return count;
+    }
+
     /**
      * 根据状态查询客户 - 自动判断（使用从库）
      */
+    @Transactional(readOnly = true)
     public List<Customer> getCustomersByStatus(String status) {
-        logger.info("根据状态查询客户，状态: {}", status);
+        logger.debug("根据状态查询客户，状态: {}", status);
         return customerMapper.selectByStatus(status);
     }
 
     /**
      * 根据年龄范围查询客户 - 自动判断（使用从库）
      */
+    @Transactional(readOnly = true)
     public List<Customer> getCustomersByAgeRange(Integer minAge, Integer maxAge) {
-        logger.info("根据年龄范围查询客户，年龄范围: {} - {}", minAge, maxAge);
+        logger.debug("根据年龄范围查询客户，年龄范围: {} - {}", minAge, maxAge);
         return customerMapper.selectByAgeRange(minAge, maxAge);
     }
 
     /**
      * 分页查询客户 - 自动判断（使用从库）
      */
+    @Transactional(readOnly = true)
     public List<Customer> getCustomersByPage(Integer pageNum, Integer pageSize) {
-        logger.info("分页查询客户，页码: {}, 页大小: {}", pageNum, pageSize);
+        logger.debug("分页查询客户，页码: {}, 页大小: {}", pageNum, pageSize);
         int offset = (pageNum - 1) * pageSize;
         return customerMapper.selectByPage(offset, pageSize);
     }
 
+    /**
+     * 游标分页查询客户 - 自动判断（使用从库）
+     *
+     * @param after 上一页最后一行的位置，为null时查询第一页
+     * @param limit 最多返回的条数
+     */
+    @Transactional(readOnly = true)
+    public List<Customer> getCustomersAfter(PageCursor after, int limit) {
+        logger.debug("游标分页查询客户，游标: {}, 条数: {}", after, limit);
+        if (after == null) {
+            return customerMapper.selectPageAfter(null, null, limit);
+        }
+        return customerMapper.selectPageAfter(after.getCreateTime(), after.getId(), limit);
+    }
+
     /**
      * 统计客户总数 - 自动判断（使用从库）
      */
+    @Transactional(readOnly = true)
     public int getTotalCount() {
-        logger.info("统计客户总数");
-        return customerMapper.countAll();
+        logger.debug("统计客户总数");
+        Long count = rowCounterService.getCount(RowCounterService.CUSTOMERS);
+        return count != null ? count.intValue() : customerMapper.countAll();
     }
 
     /**
      * 根据状态统计客户数 - 自动判断（使用从库）
      */
+    @Transactional(readOnly = true)
     public int getCountByStatus(String status) {
-        logger.info("根据状态统计客户数，状态: {}", status);
+        logger.debug("根据状态统计客户数，状态: {}", status);
         return customerMapper.countByStatus(status);
     }
 
+    /**
+     * 按状态分组统计客户数 - 自动判断（使用从库）
+     *
+     * @return 状态 -> 数量，所有状态的数量之和即为总数
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Integer> getCountGroupByStatus() {
+        logger.debug("按状态分组统计客户数");
+        return StatusCount.toMap(customerMapper.countGroupByStatus());
+    }
+
     /**
      * 创建客户 - 强制使用主库
+     * SUPPORTS不主动开启事务：开启组提交时在CustomerGroupCommitter的组事务中插入，
+     * 等待合并期间不占用数据库连接；未开启时由CustomerGroupCommitter单独开启事务
      */
     @DataSource(DataSourceType.MASTER)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public int createCustomer(Customer customer) {
         logger.info("创建客户: {}", customer.getCustomerName());
         
@@ -104,9 +255,9 @@ public class CustomerService {
             throw new IllegalArgumentException("客户信息不能为空");
         }
         
-        // 检查客户编码是否已存在
-        Customer existingCustomer = customerMapper.selectByCustomerCode(customer.getCustomerCode());
-        if (existingCustomer != null) {
+        // 检查客户编码是否已存在，过滤器判定不存在时不查询数据库
+        if (customerCodeFilter.mightContain(customer.getCustomerCode())
+                && customerMapper.selectByCustomerCode(customer.getCustomerCode()) != null) {
             throw new IllegalArgumentException("客户编码已存在: " + customer.getCustomerCode());
         }
         
@@ -117,7 +268,12 @@ public class CustomerService {
         customer.setCreateTime(LocalDateTime.now());
         customer.setUpdateTime(LocalDateTime.now());
         
-        return customerMapper.insert(customer);
+        try {
+            return customerGroupCommitter.insert(customer);
+        } catch (DuplicateKeyException e) {
+            // 过滤器未包含其他实例刚写入的编码，或同一组中有相同编码时，由唯一约束拒绝
+            throw new IllegalArgumentException("客户编码已存在: " + customer.getCustomerCode(), e);
+        }
     }
 
     /**
@@ -132,7 +288,10 @@ public class CustomerService {
         }
         
         customer.setUpdateTime(LocalDateTime.now());
-        return customerMapper.updateByIdSelective(customer);
+        int rows = customerMapper.updateByIdSelective(customer);
+        customerCache.evictAfterCommit(customer.getId());
+        customerCodeFilter.putAfterCommit(customer.getCustomerCode());
+        return rows;
     }
 
     /**
@@ -145,11 +304,21 @@ public class CustomerService {
         if (id == null) {
             throw new IllegalArgumentException("客户ID不能为空");
         }
-        return customerMapper.deleteById(id);
+        // 订单外键为ON DELETE CASCADE，客户的订单随客户一起删除，订单计数同步扣减，订单缓存一并清除
+        List<Long> orderIds = orderMapper.selectIdsByCustomerId(id);
+        int rows = customerMapper.deleteById(id);
+        rowCounterService.increment(RowCounterService.CUSTOMERS, -rows);
+        if (rows > 0) {
+            rowCounterService.increment(RowCounterService.ORDERS, -orderIds.size());
+            orderIds.forEach(orderCache::evictAfterCommit);
+        }
+        customerCache.evictAfterCommit(id);
+        return rows;
     }
 
     /**
      * 批量创建客户 - 强制使用主库
+     * 使用BATCH执行器分批执行单行INSERT，避免拼接过长的SQL
      */
     @DataSource(DataSourceType.MASTER)
     public int batchCreateCustomers(List<Customer> customers) {
@@ -168,7 +337,10 @@ public class CustomerService {
             customer.setUpdateTime(now);
         }
         
-        return customerMapper.batchInsert(customers);
+        int rows = batchInsertExecutor.insert(CustomerMapper.class, customers, CustomerMapper::insert);
+        rowCounterService.increment(RowCounterService.CUSTOMERS, rows);
+        customers.forEach(customer -> customerCodeFilter.putAfterCommit(customer.getCustomerCode()));
+        return rows;
     }
 
     /**
@@ -181,7 +353,18 @@ public class CustomerService {
         if (ids == null || ids.isEmpty()) {
             throw new IllegalArgumentException("客户ID列表不能为空");
         }
-        return customerMapper.batchDelete(ids);
+        List<Long> orderIds = new ArrayList<>();
+        for (Long id : ids) {
+            orderIds.addAll(orderMapper.selectIdsByCustomerId(id));
+        }
+        int rows = customerMapper.batchDelete(ids);
+        rowCounterService.increment(RowCounterService.CUSTOMERS, -rows);
+        if (rows > 0) {
+            rowCounterService.increment(RowCounterService.ORDERS, -orderIds.size());
+            orderIds.forEach(orderCache::evictAfterCommit);
+        }
+        ids.forEach(customerCache::evictAfterCommit);
+        return rows;
     }
 
     /**
@@ -196,7 +379,9 @@ public class CustomerService {
         customer.setStatus("ACTIVE");
         customer.setUpdateTime(LocalDateTime.now());
         
-        return customerMapper.updateByIdSelective(customer);
+        int rows = customerMapper.updateByIdSelective(customer);
+        customerCache.evictAfterCommit(id);
+        return rows;
     }
 
     /**
@@ -211,14 +396,18 @@ public class CustomerService {
         customer.setStatus("INACTIVE");
         customer.setUpdateTime(LocalDateTime.now());
         
-        return customerMapper.updateByIdSelective(customer);
+        int rows = customerMapper.updateByIdSelective(customer);
+        customerCache.evictAfterCommit(id);
+        return rows;
     }
 
     /**
      * 检查客户编码是否存在 - 自动判断（使用从库）
+     * 不经过过滤器：过滤器只包含本实例写入和上次重建时的编码，其他实例刚写入的编码会被判定为不存在
      */
+    @Transactional(readOnly = true)
     public boolean isCustomerCodeExists(String customerCode) {
-        logger.info("检查客户编码是否存在: {}", customerCode);
+        logger.debug("检查客户编码是否存在: {}", customerCode);
         Customer customer = customerMapper.selectByCustomerCode(customerCode);
         return customer != null;
     }
@@ -2,17 +2,30 @@ package com.example.service;
 
 import com.example.annotation.DataSource;
 import com.example.annotation.DataSourceType;
+import com.example.config.BatchLoader;
+import com.example.config.LocalCache;
+import com.example.config.OrderNoGenerator;
 import com.example.domain.Order;
+import com.example.domain.PageCursor;
+import com.example.domain.StatusCount;
 import com.example.mapper.OrderMapper;
+import org.apache.ibatis.cursor.Cursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 订单服务类
@@ -27,89 +40,187 @@ public class OrderService {
     @Autowired
     private OrderMapper orderMapper;
 
+    @Autowired
+    private RowCounterService rowCounterService;
+
+    @Autowired
+    @Qualifier("orderCache")
+    private LocalCache<Long, Order> orderCache;
+
+    @Autowired
+    @Qualifier("orderNoCache")
+    private LocalCache<String, Long> orderNoCache;
+
+    @Autowired
+    private OrderNoGenerator orderNoGenerator;
+
+    /**
+     * 缓存未命中时，不同ID的并发查询合并为一次IN查询
+     */
+    @Autowired
+    @Qualifier("orderByIdLoader")
+    private BatchLoader<Long, Order> orderByIdLoader;
+
+
     /**
-     * 根据ID查询订单 - 强制使用从库
+     * 根据ID查询订单 - 强制使用从库，优先读取本地缓存
+     * SUPPORTS不主动开启事务，缓存命中时不占用数据库连接
+     * 返回的对象是缓存中的共享实例，只能读取，需要修改时请新建对象
      */
     @DataSource(DataSourceType.SLAVE)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Order getOrderById(Long id) {
-        logger.info("查询订单信息，ID: {}", id);
-        return orderMapper.selectById(id);
+        logger.debug("查询订单信息，ID: {}", id);
+        return orderCache.get(id, orderByIdLoader::load);
     }
 
     /**
-     * 根据订单号查询订单 - 强制使用从库
+     * 根据订单号查询订单 - 强制使用从库，优先读取本地缓存
+     * 返回的对象是缓存中的共享实例，只能读取
      */
     @DataSource(DataSourceType.SLAVE)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Order getOrderByOrderNo(String orderNo) {
-        logger.info("查询订单信息，订单号: {}", orderNo);
-        return orderMapper.selectByOrderNo(orderNo);
+        logger.debug("查询订单信息，订单号: {}", orderNo);
+        
+        // 订单号缓存只保存ID，实体从ID缓存读取，订单被删除时重新查询
+        Long id = orderNoCache.getIfPresent(orderNo);
+        if (id != null) {
+            Order order = orderCache.get(id, orderByIdLoader::load);
+            if (order != null && orderNo.equals(order.getOrderNo())) {
+                return order;
+            }
+            orderNoCache.evict(orderNo);
+        }
+        
+        Order order = orderMapper.selectByOrderNo(orderNo);
+        if (order != null) {
+            orderCache.put(order.getId(), order);
+            orderNoCache.put(orderNo, order.getId());
+        }
+        return order;
     }
 
     /**
      * 查询所有订单 - 自动判断（使用从库）
      */
+    @Transactional(readOnly = true)
     public List<Order> getAllOrders() {
-        logger.info("查询所有订单信息");
+        logger.debug("查询所有订单信息");
         return orderMapper.selectAll();
     }
 
+    /**
+     * 流式导出所有订单 - 自动判断（使用从库）
+     * 通过Cursor逐行读取并交给consumer处理，内存占用与数据量无关；
+     * 遍历期间一直占用一个数据库连接
+     *
+     * @param consumer 每一行的处理逻辑，例如直接写入响应输出流
+     * @return 导出的行数
+     */
+    @Transactional(readOnly = true)
+    public int exportOrders(Consumer<Order> consumer) {
+        logger.info("流式导出所有订单");
+        int count = 0;
+        try (Cursor<Order> cursor = orderMapper.selectAllCursor()) {
+            for (Order row : cursor) {
+                consumer.accept(row);
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        logger.info("流式导出订单完成，共 {} 条", count);
+        return count;
+    }
+
     /**
      * 根据客户ID查询订单 - 自动判断（使用从库）
      */
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByCustomerId(Long customerId) {
-        logger.info("根据客户ID查询订单，客户ID: {}", customerId);
+        logger.debug("根据客户ID查询订单，客户ID: {}", customerId);
         return orderMapper.selectByCustomerId(customerId);
     }
 
     /**
      * 根据状态查询订单 - 自动判断（使用从库）
      */
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByStatus(String status) {
-        logger.info("根据状态查询订单，状态: {}", status);
+        logger.debug("根据状态查询订单，状态: {}", status);
         return orderMapper.selectByStatus(status);
     }
 
     /**
      * 分页查询订单 - 自动判断（使用从库）
      */
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByPage(Integer pageNum, Integer pageSize) {
-        logger.info("分页查询订单，页码: {}, 页大小: {}", pageNum, pageSize);
+        logger.debug("分页查询订单，页码: {}, 页大小: {}", pageNum, pageSize);
         int offset = (pageNum - 1) * pageSize;
         return orderMapper.selectByPage(offset, pageSize);
     }
 
+    /**
+     * 游标分页查询订单 - 自动判断（使用从库）
+     *
+     * @param after 上一页最后一行的位置，为null时查询第一页
+     * @param limit 最多返回的条数
+     */
+    @Transactional(readOnly = true)
+    public List<Order> getOrdersAfter(PageCursor after, int limit) {
+        logger.debug("游标分页查询订单，游标: {}, 条数: {}", after, limit);
+        if (after == null) {
+            return orderMapper.selectPageAfter(null, null, limit);
+        }
+        return orderMapper.selectPageAfter(after.getCreateTime(), after.getId(), limit);
+    }
+
     /**
      * 统计订单总数 - 自动判断（使用从库）
      */
+    @Transactional(readOnly = true)
     public int getTotalCount() {
-        logger.info("统计订单总数");
-        return orderMapper.countAll();
+        logger.debug("统计订单总数");
+        Long count = rowCounterService.getCount(RowCounterService.ORDERS);
+        return count != null ? count.intValue() : orderMapper.countAll();
     }
 
     /**
      * 根据状态统计订单数 - 自动判断（使用从库）
      */
+    @Transactional(readOnly = true)
     public int getCountByStatus(String status) {
-        logger.info("根据状态统计订单数，状态: {}", status);
+        logger.debug("根据状态统计订单数，状态: {}", status);
         return orderMapper.countByStatus(status);
     }
 
+    /**
+     * 按状态分组统计订单数 - 自动判断（使用从库）
+     *
+     * @return 状态 -> 数量，所有状态的数量之和即为总数
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Integer> getCountGroupByStatus() {
+        logger.debug("按状态分组统计订单数");
+        return StatusCount.toMap(orderMapper.countGroupByStatus());
+    }
+
     /**
      * 创建订单 - 强制使用主库
+     * 未指定订单号时由OrderNoGenerator生成；指定的订单号重复时由唯一约束拒绝，不在插入前查询
      */
     @DataSource(DataSourceType.MASTER)
     public int createOrder(Order order) {
-        logger.info("创建订单: {}", order.getOrderNo());
-        
         if (order == null) {
             throw new IllegalArgumentException("订单信息不能为空");
         }
         
-        // 检查订单号是否已存在
-        Order existingOrder = orderMapper.selectByOrderNo(order.getOrderNo());
-        if (existingOrder != null) {
-            throw new IllegalArgumentException("订单号已存在: " + order.getOrderNo());
+        if (order.getOrderNo() == null || order.getOrderNo().isBlank()) {
+            order.setOrderNo(orderNoGenerator.nextOrderNo());
         }
+        logger.info("创建订单: {}", order.getOrderNo());
         
         // 设置默认值
         if (order.getStatus() == null) {
@@ -118,7 +229,14 @@ public class OrderService {
         order.setCreateTime(LocalDateTime.now());
         order.setUpdateTime(LocalDateTime.now());
         
-        return orderMapper.insert(order);
+        int rows;
+        try {
+            rows = orderMapper.insert(order);
+        } catch (DuplicateKeyException e) {
+            throw new IllegalArgumentException("订单号已存在: " + order.getOrderNo(), e);
+        }
+        rowCounterService.increment(RowCounterService.ORDERS, rows);
+        return rows;
     }
 
     /**
@@ -133,7 +251,9 @@ public class OrderService {
         }
         
         order.setUpdateTime(LocalDateTime.now());
-        return orderMapper.updateByIdSelective(order);
+        int rows = orderMapper.updateByIdSelective(order);
+        orderCache.evictAfterCommit(order.getId());
+        return rows;
     }
 
     /**
@@ -146,7 +266,10 @@ public class OrderService {
         if (id == null) {
             throw new IllegalArgumentException("订单ID不能为空");
         }
-        return orderMapper.deleteById(id);
+        int rows = orderMapper.deleteById(id);
+        rowCounterService.increment(RowCounterService.ORDERS, -rows);
+        orderCache.evictAfterCommit(id);
+        return rows;
     }
 
     /**
@@ -163,14 +286,17 @@ public class OrderService {
         order.setPaymentTime(LocalDateTime.now());
         order.setUpdateTime(LocalDateTime.now());
         
-        return orderMapper.updateByIdSelective(order);
+        int rows = orderMapper.updateByIdSelective(order);
+        orderCache.evictAfterCommit(id);
+        return rows;
     }
 
     /**
      * 检查订单号是否存在 - 自动判断（使用从库）
      */
+    @Transactional(readOnly = true)
     public boolean isOrderNoExists(String orderNo) {
-        logger.info("检查订单号是否存在: {}", orderNo);
+        logger.debug("检查订单号是否存在: {}", orderNo);
         Order order = orderMapper.selectByOrderNo(orderNo);
         return order != null;
     }
@@ -0,0 +1,106 @@
+package com.example.service;
+
+import com.example.mapper.RowCounterMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 行数计数器服务
+ *
+ * 业务表的新增、删除在同一事务中增减row_counter中的计数，总数查询对各槽位求和，
+ * 不再对整张表执行COUNT(*)；计数器由RowCounterReconciler定期按实际行数校准
+ *
+ * 每张表的计数拆分为SLOTS个槽位，每次增减随机更新其中一个，
+ * 并发写入的事务分散在不同的行上，不会都排队等待同一行的行锁
+ */
+@Service
+@Transactional
+public class RowCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RowCounterService.class);
+
+    public static final String CUSTOMERS = "customers";
+
+    public static final String ORDERS = "orders";
+
+    /**
+     * 维护计数的表
+     */
+    public static final List<String> TABLES = List.of(CUSTOMERS, ORDERS);
+
+    /**
+     * 每张表的计数槽位数
+     */
+    public static final int SLOTS = 8;
+
+    @Autowired
+    private RowCounterMapper rowCounterMapper;
+
+    /**
+     * 查询表的行数 - 自动判断（使用从库）
+     *
+     * @return 计数，计数器不存在时返回null，调用方应回退到COUNT(*)
+     */
+    @Transactional(readOnly = true)
+    public Long getCount(String tableName) {
+        return rowCounterMapper.selectRowCount(checkTable(tableName));
+    }
+
+    /**
+     * 增减表的行数，随机选择一个槽位更新
+     * 在调用方的事务中执行，与业务数据一起提交或回滚
+     */
+    public void increment(String tableName, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        checkTable(tableName);
+        int slot = ThreadLocalRandom.current().nextInt(SLOTS);
+        if (rowCounterMapper.updateRowCount(tableName, slot, delta) > 0) {
+            return;
+        }
+        // 槽位未创建（例如旧的建表脚本只有一行计数），改为更新0号槽位
+        if (slot == 0 || rowCounterMapper.updateRowCount(tableName, 0, delta) == 0) {
+            logger.warn("计数器不存在，等待校准时创建: {}", tableName);
+        }
+    }
+
+    /**
+     * 按表的实际行数校准计数，缺少的槽位补齐后再校准
+     *
+     * @return 校准后的行数
+     */
+    public Long reconcile(String tableName) {
+        checkTable(tableName);
+        if (rowCounterMapper.reconcileRowCount(tableName) < SLOTS) {
+            List<Integer> existing = rowCounterMapper.selectSlots(tableName);
+            for (int slot = 0; slot < SLOTS; slot++) {
+                if (existing.contains(slot)) {
+                    continue;
+                }
+                try {
+                    rowCounterMapper.insertSlot(tableName, slot);
+                } catch (DuplicateKeyException e) {
+                    // 其他实例已同时创建
+                }
+            }
+            logger.info("已创建计数器槽位: {}", tableName);
+            rowCounterMapper.reconcileRowCount(tableName);
+        }
+        return rowCounterMapper.selectRowCount(tableName);
+    }
+
+    private static String checkTable(String tableName) {
+        if (!TABLES.contains(tableName)) {
+            throw new IllegalArgumentException("不支持计数的表: " + tableName);
+        }
+        return tableName;
+    }
+}
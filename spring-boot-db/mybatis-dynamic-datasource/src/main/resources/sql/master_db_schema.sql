@@ -7,6 +7,7 @@ CREATE DATABASE IF NOT EXISTS master_db DEFAULT CHARACTER SET utf8mb4 COLLATE ut
 USE master_db;
 
 -- 删除已存在的表
+DROP TABLE IF EXISTS row_counter;
 DROP TABLE IF EXISTS orders;
 DROP TABLE IF EXISTS customers;
 
@@ -42,6 +43,17 @@ CREATE TABLE orders (
     FOREIGN KEY (customer_id) REFERENCES customers(id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';
 
+-- 创建行数计数器表
+-- 客户、订单的新增和删除在同一事务中维护计数，总数查询直接读取，避免COUNT(*)全表扫描
+-- 每张表的计数拆分为多个槽位，每次写入随机更新一个槽位，避免所有写入竞争同一行
+CREATE TABLE row_counter (
+    table_name VARCHAR(64) NOT NULL COMMENT '表名',
+    slot INT NOT NULL COMMENT '槽位，总数为各槽位之和',
+    row_count BIGINT NOT NULL DEFAULT 0 COMMENT '行数',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (table_name, slot)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='行数计数器表';
+
 -- 创建索引
 -- 客户表索引
 CREATE INDEX idx_customers_code ON customers(customer_code);
@@ -49,7 +61,8 @@ CREATE INDEX idx_customers_name ON customers(customer_name);
 CREATE INDEX idx_customers_email ON customers(email);
 CREATE INDEX idx_customers_status ON customers(status);
 CREATE INDEX idx_customers_age ON customers(age);
-CREATE INDEX idx_customers_create_time ON customers(create_time);
+-- 游标分页按 (create_time, id) 排序和定位，联合索引同时覆盖按create_time的排序
+CREATE INDEX idx_customers_create_time_id ON customers(create_time, id);
 
 -- 订单表索引
 CREATE INDEX idx_orders_no ON orders(order_no);
@@ -57,7 +70,8 @@ CREATE INDEX idx_orders_customer_id ON orders(customer_id);
 CREATE INDEX idx_orders_customer_name ON orders(customer_name);
 CREATE INDEX idx_orders_status ON orders(status);
 CREATE INDEX idx_orders_amount ON orders(total_amount);
-CREATE INDEX idx_orders_create_time ON orders(create_time);
+-- 游标分页按 (create_time, id) 排序和定位，联合索引同时覆盖按create_time的排序
+CREATE INDEX idx_orders_create_time_id ON orders(create_time, id);
 CREATE INDEX idx_orders_payment_time ON orders(payment_time);
 
 -- 插入测试数据
@@ -87,6 +101,12 @@ INSERT INTO orders (order_no, customer_id, customer_name, total_amount, status,
 ('ORD009', 10, '王十二', 4999.99, 'COMPLETED', '支付宝', '2024-01-23 12:00:00', '重庆市渝中区xxx广场', 'VIP大额订单', '2024-01-23 10:30:00', NOW()),
 ('ORD010', 3, '王五', 799.50, 'PENDING', NULL, NULL, '广州市天河区xxx大厦', '普通订单', '2024-01-24 16:00:00', NOW());
 
+-- 初始化行数计数器：实际行数写入0号槽位，其余7个槽位为0
+INSERT INTO row_counter (table_name, slot, row_count) SELECT 'customers', 0, COUNT(*) FROM customers;
+INSERT INTO row_counter (table_name, slot, row_count) VALUES ('customers', 1, 0), ('customers', 2, 0), ('customers', 3, 0), ('customers', 4, 0), ('customers', 5, 0), ('customers', 6, 0), ('customers', 7, 0);
+INSERT INTO row_counter (table_name, slot, row_count) SELECT 'orders', 0, COUNT(*) FROM orders;
+INSERT INTO row_counter (table_name, slot, row_count) VALUES ('orders', 1, 0), ('orders', 2, 0), ('orders', 3, 0), ('orders', 4, 0), ('orders', 5, 0), ('orders', 6, 0), ('orders', 7, 0);
+
 -- 查看插入结果
 SELECT '客户统计' as 统计类型, COUNT(*) as 总数 FROM customers
 UNION ALL
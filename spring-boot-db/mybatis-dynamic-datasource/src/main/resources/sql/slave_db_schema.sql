@@ -8,6 +8,7 @@ CREATE DATABASE IF NOT EXISTS slave_db DEFAULT CHARACTER SET utf8mb4 COLLATE utf
 USE slave_db;
 
 -- 删除已存在的表
+DROP TABLE IF EXISTS row_counter;
 DROP TABLE IF EXISTS orders;
 DROP TABLE IF EXISTS customers;
 
@@ -43,6 +44,17 @@ CREATE TABLE orders (
     FOREIGN KEY (customer_id) REFERENCES customers(id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表-从库';
 
+-- 创建行数计数器表
+-- 计数由主库维护并通过主从复制同步，总数查询直接读取，避免COUNT(*)全表扫描
+-- 每张表的计数拆分为多个槽位，总数为各槽位之和
+CREATE TABLE row_counter (
+    table_name VARCHAR(64) NOT NULL COMMENT '表名',
+    slot INT NOT NULL COMMENT '槽位，总数为各槽位之和',
+    row_count BIGINT NOT NULL DEFAULT 0 COMMENT '行数',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (table_name, slot)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='行数计数器表-从库';
+
 -- 创建索引（优化查询性能）
 -- 客户表索引
 CREATE INDEX idx_customers_code ON customers(customer_code);
@@ -50,7 +62,8 @@ CREATE INDEX idx_customers_name ON customers(customer_name);
 CREATE INDEX idx_customers_email ON customers(email);
 CREATE INDEX idx_customers_status ON customers(status);
 CREATE INDEX idx_customers_age ON customers(age);
-CREATE INDEX idx_customers_create_time ON customers(create_time);
+-- 游标分页按 (create_time, id) 排序和定位，联合索引同时覆盖按create_time的排序
+CREATE INDEX idx_customers_create_time_id ON customers(create_time, id);
 
 -- 订单表索引
 CREATE INDEX idx_orders_no ON orders(order_no);
@@ -58,7 +71,8 @@ CREATE INDEX idx_orders_customer_id ON orders(customer_id);
 CREATE INDEX idx_orders_customer_name ON orders(customer_name);
 CREATE INDEX idx_orders_status ON orders(status);
 CREATE INDEX idx_orders_amount ON orders(total_amount);
-CREATE INDEX idx_orders_create_time ON orders(create_time);
+-- 游标分页按 (create_time, id) 排序和定位，联合索引同时覆盖按create_time的排序
+CREATE INDEX idx_orders_create_time_id ON orders(create_time, id);
 CREATE INDEX idx_orders_payment_time ON orders(payment_time);
 
 -- 插入测试数据（与主库相同的数据，模拟主从同步）
@@ -97,6 +111,12 @@ INSERT INTO orders (order_no, customer_id, customer_name, total_amount, status,
 ('ORD011', 11, '历史客户1', 999.99, 'COMPLETED', '支付宝', '2023-12-01 15:00:00', '天津市和平区xxx路', '历史订单', '2023-12-01 14:00:00', '2023-12-01 18:00:00'),
 ('ORD012', 12, '历史客户2', 1599.99, 'COMPLETED', '微信支付', '2023-12-02 16:00:00', '苏州市姑苏区xxx街', '历史订单', '2023-12-02 15:00:00', '2023-12-02 19:00:00');
 
+-- 初始化行数计数器：实际行数写入0号槽位，其余7个槽位为0
+INSERT INTO row_counter (table_name, slot, row_count) SELECT 'customers', 0, COUNT(*) FROM customers;
+INSERT INTO row_counter (table_name, slot, row_count) VALUES ('customers', 1, 0), ('customers', 2, 0), ('customers', 3, 0), ('customers', 4, 0), ('customers', 5, 0), ('customers', 6, 0), ('customers', 7, 0);
+INSERT INTO row_counter (table_name, slot, row_count) SELECT 'orders', 0, COUNT(*) FROM orders;
+INSERT INTO row_counter (table_name, slot, row_count) VALUES ('orders', 1, 0), ('orders', 2, 0), ('orders', 3, 0), ('orders', 4, 0), ('orders', 5, 0), ('orders', 6, 0), ('orders', 7, 0);
+
 -- 查看插入结果
 SELECT '从库客户统计' as 统计类型, COUNT(*) as 总数 FROM customers
 UNION ALL
@@ -3,19 +3,26 @@ package com.example;
 import com.example.annotation.DataSource;
 import com.example.annotation.DataSourceType;
 import com.example.config.DataSourceContextHolder;
+import com.example.config.DynamicDataSource;
+import com.example.config.LocalCache;
 import com.example.domain.Customer;
 import com.example.domain.Order;
 import com.example.service.CustomerService;
 import com.example.service.OrderService;
+import com.example.service.RowCounterService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.test.context.ActiveProfiles;
-import org.springframework.test.context.jdbc.Sql;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -25,10 +32,6 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 @SpringBootTest
 @ActiveProfiles("test")
-@Sql(scripts = {
-    "classpath:sql/master-test-schema.sql",
-    "classpath:sql/slave-test-schema.sql"
-})
 class DynamicDatasourceApplicationTests {
 
     @Autowired
@@ -37,6 +40,30 @@ class DynamicDatasourceApplicationTests {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private RowCounterService rowCounterService;
+
+    @Autowired
+    private DynamicDataSource dynamicDataSource;
+
+    @Autowired
+    private List<LocalCache<?, ?>> localCaches;
+
+    /**
+     * 主库、从库是两个独立的内存库，分别初始化
+     * 从库连接池不是单独的Bean，不能用@Sql指定，直接取DynamicDataSource中的目标数据源
+     * 重建后ID会重复使用，本地缓存一并清空
+     */
+    @BeforeEach
+    void initDatabases() {
+        Map<Object, javax.sql.DataSource> dataSources = dynamicDataSource.getResolvedDataSources();
+        new ResourceDatabasePopulator(new ClassPathResource("sql/master-test-schema.sql"))
+                .execute(dataSources.get("master"));
+        new ResourceDatabasePopulator(new ClassPathResource("sql/slave-test-schema.sql"))
+                .execute(dataSources.get("slave"));
+        localCaches.forEach(LocalCache::clear);
+    }
+
     @Test
     void contextLoads() {
         // 测试Spring上下文是否正常加载
@@ -124,6 +151,60 @@ class DynamicDatasourceApplicationTests {
         assertNotNull(newOrder.getId());
     }
 
+    @Test
+    void testDeleteCustomerEvictsCascadedOrders() {
+        // 订单进入本地缓存
+        assertNotNull(orderService.getOrderById(1L));
+        assertNotNull(orderService.getOrderByOrderNo("TEST_ORD001"));
+        
+        assertEquals(1, customerService.deleteCustomer(1L));
+        // 测试库没有外键，手动删除订单，模拟级联删除并同步到从库
+        Map<Object, javax.sql.DataSource> dataSources = dynamicDataSource.getResolvedDataSources();
+        new JdbcTemplate(dataSources.get("master")).update("DELETE FROM orders WHERE customer_id = 1");
+        new JdbcTemplate(dataSources.get("slave")).update("DELETE FROM orders WHERE customer_id = 1");
+        
+        // 级联删除的订单不再从缓存返回
+        assertNull(orderService.getOrderById(1L));
+        assertNull(orderService.getOrderByOrderNo("TEST_ORD001"));
+    }
+
+    @Test
+    void testCodeWrittenOutsideServiceIsFound() {
+        // 其他实例写入的数据不在本实例的过滤器中，按编码查询和存在性检查仍然查询数据库
+        for (String key : new String[]{"master", "slave"}) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dynamicDataSource.getResolvedDataSources().get(key));
+            jdbcTemplate.update("INSERT INTO customers (customer_code, customer_name, email) "
+                    + "VALUES ('EXT_C001', '外部客户', 'ext@example.com')");
+            jdbcTemplate.update("INSERT INTO orders (order_no, customer_id, customer_name, total_amount) "
+                    + "VALUES ('EXT_ORD001', 1, '测试客户1', 1.00)");
+        }
+        
+        assertNotNull(customerService.getCustomerByCode("EXT_C001"));
+        assertTrue(customerService.isCustomerCodeExists("EXT_C001"));
+        assertNotNull(orderService.getOrderByOrderNo("EXT_ORD001"));
+        assertTrue(orderService.isOrderNoExists("EXT_ORD001"));
+    }
+
+    @Test
+    void testRowCounterSlotsAddUpToRowCount() {
+        JdbcTemplate master = new JdbcTemplate(dynamicDataSource.getResolvedDataSources().get("master"));
+        for (int i = 0; i < 20; i++) {
+            customerService.createCustomer(new Customer("SLOT_C" + i, "槽位客户" + i, "slot" + i + "@example.com",
+                    "13900000000", 30));
+        }
+        
+        Long actual = master.queryForObject("SELECT COUNT(*) FROM customers", Long.class);
+        assertEquals(actual, master.queryForObject(
+                "SELECT SUM(row_count) FROM row_counter WHERE table_name = 'customers'", Long.class));
+        
+        // 缺少槽位且计数有偏差时，校准补齐槽位并按实际行数覆盖
+        master.update("DELETE FROM row_counter WHERE table_name = 'customers' AND slot > 3");
+        master.update("UPDATE row_counter SET row_count = 100 WHERE table_name = 'customers'");
+        assertEquals(actual, rowCounterService.reconcile(RowCounterService.CUSTOMERS));
+        assertEquals(RowCounterService.SLOTS, master.queryForObject(
+                "SELECT COUNT(*) FROM row_counter WHERE table_name = 'customers'", Integer.class));
+    }
+
     @DataSource(DataSourceType.SLAVE)
     @Test
     void testSlaveDataSource() {
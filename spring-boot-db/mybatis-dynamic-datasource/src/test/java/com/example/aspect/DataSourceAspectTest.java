@@ -0,0 +1,126 @@
+package com.example.aspect;
+
+import com.example.annotation.DataSourceType;
+import com.example.config.DataSourceContextHolder;
+import com.example.domain.Customer;
+import com.example.mapper.CustomerMapper;
+import com.example.service.CustomerService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * DataSourceAspect路由解析测试类
+ */
+class DataSourceAspectTest {
+
+    private final DataSourceAspect aspect = new DataSourceAspect();
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        DataSourceContextHolder.clearDataSourceType();
+        DataSourceContextHolder.clearLastWriteTime();
+    }
+
+    @Test
+    void testAnnotatedMethodRouting() throws NoSuchMethodException {
+        Method read = CustomerService.class.getMethod("getCustomerById", Long.class);
+        Method write = CustomerService.class.getMethod("createCustomer", Customer.class);
+
+        assertEquals(DataSourceType.SLAVE, aspect.resolveRouting(read).dataSourceType);
+        assertFalse(aspect.resolveRouting(read).write);
+        assertEquals(DataSourceType.MASTER, aspect.resolveRouting(write).dataSourceType);
+        assertTrue(aspect.resolveRouting(write).write);
+    }
+
+    @Test
+    void testMapperMethodRoutingByName() throws NoSuchMethodException {
+        Method read = CustomerMapper.class.getMethod("selectById", Long.class);
+        Method write = CustomerMapper.class.getMethod("insert", Customer.class);
+
+        assertEquals(DataSourceType.SLAVE, aspect.resolveRouting(read).dataSourceType);
+        assertEquals(DataSourceType.MASTER, aspect.resolveRouting(write).dataSourceType);
+    }
+
+    @Test
+    void testRoutingIsCachedPerMethod() throws NoSuchMethodException {
+        Method method = CustomerService.class.getMethod("getCustomerById", Long.class);
+
+        assertSame(aspect.resolveRouting(method), aspect.resolveRouting(method));
+    }
+
+    @Test
+    void testReadOnlyTransactionRoutedToSlave() throws NoSuchMethodException {
+        Method method = ReportService.class.getMethod("buildReport");
+        Method write = ReportService.class.getMethod("rebuildReport");
+
+        assertEquals(DataSourceType.SLAVE, aspect.resolveRouting(method).dataSourceType);
+        assertEquals(DataSourceType.MASTER, aspect.resolveRouting(write).dataSourceType);
+    }
+
+    @Test
+    void testRoutingIsLockedInsideTransaction() throws Throwable {
+        DataSourceContextHolder.push(DataSourceType.SLAVE);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        Method write = CustomerMapper.class.getMethod("insert", Customer.class);
+        DataSourceType[] holder = new DataSourceType[1];
+        ProceedingJoinPoint point = mockJoinPoint(write, () -> holder[0] = DataSourceContextHolder.getDataSourceType());
+
+        aspect.around(point);
+
+        assertEquals(DataSourceType.SLAVE, holder[0]);
+        assertEquals(0L, DataSourceContextHolder.getLastWriteTime());
+        assertEquals(DataSourceType.SLAVE, DataSourceContextHolder.getDataSourceType());
+    }
+
+    @Test
+    void testNestedScopeRestoredWithoutTransaction() throws Throwable {
+        DataSourceContextHolder.push(DataSourceType.MASTER);
+
+        Method read = CustomerMapper.class.getMethod("selectById", Long.class);
+        DataSourceType[] holder = new DataSourceType[1];
+        ProceedingJoinPoint point = mockJoinPoint(read, () -> holder[0] = DataSourceContextHolder.getDataSourceType());
+
+        aspect.around(point);
+
+        assertEquals(DataSourceType.SLAVE, holder[0]);
+        assertEquals(DataSourceType.MASTER, DataSourceContextHolder.getDataSourceType());
+    }
+
+    private ProceedingJoinPoint mockJoinPoint(Method method, Runnable body) throws Throwable {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        ProceedingJoinPoint point = mock(ProceedingJoinPoint.class);
+        when(point.getSignature()).thenReturn(signature);
+        when(point.getTarget()).thenReturn(new Object());
+        when(point.proceed()).thenAnswer(invocation -> {
+            body.run();
+            return null;
+        });
+        return point;
+    }
+
+    @Transactional
+    static class ReportService {
+
+        @Transactional(readOnly = true)
+        public Object buildReport() {
+            return null;
+        }
+
+        public Object rebuildReport() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BatchLoader测试类
+ */
+class BatchLoaderTest {
+
+    /**
+     * 每次批量查询收到的ID
+     */
+    private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+
+    /**
+     * 模拟IN查询，只有1到100的ID存在
+     */
+    private final Function<List<Long>, List<String>> batchFunction = ids -> {
+        batches.add(new ArrayList<>(ids));
+        return ids.stream().filter(id -> id >= 1 && id <= 100).map(id -> "customer-" + id)
+                .collect(Collectors.toList());
+    };
+
+    private final Function<String, Long> keyExtractor = value -> Long.valueOf(value.substring("customer-".length()));
+
+    @AfterEach
+    void tearDown() {
+        DataSourceContextHolder.clearLastWriteTime();
+    }
+
+    @Test
+    void testConcurrentLoadsAreBatched() throws Exception {
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try (BatchLoader<Long, String> loader = new BatchLoader<>("customer", batchFunction, keyExtractor,
+                200, 100, 2, 5000)) {
+            List<Future<String>> results = new ArrayList<>();
+            for (long id = 1; id <= callers; id++) {
+                long key = id;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return loader.load(key);
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < callers; i++) {
+                assertEquals("customer-" + (i + 1), results.get(i).get(5, TimeUnit.SECONDS));
+            }
+
+            // 窗口足够长，8个调用方合并为一次查询
+            assertEquals(1, batches.size());
+            assertEquals(callers, batches.get(0).size());
+            assertEquals(1, loader.getBatchCount());
+            assertEquals(callers, loader.getKeyCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLoadAllSplitsByMaxBatchSize() {
+        try (BatchLoader<Long, String> loader = new BatchLoader<>("customer", batchFunction, keyExtractor,
+                1000, 2, 1, 5000)) {
+            Map<Long, String> result = loader.loadAll(Arrays.asList(1L, 2L, 2L, 3L, 404L));
+
+            // 重复ID只查询一次，不存在的ID不返回
+            assertEquals(Arrays.asList(1L, 2L, 3L), new ArrayList<>(result.keySet()));
+            // 达到批次大小时不等窗口结束立即执行
+            assertEquals(Arrays.asList(1L, 2L), batches.get(0));
+            assertEquals(Arrays.asList(3L, 404L), batches.get(1));
+        }
+    }
+
+    @Test
+    void testMissingKeyReturnsNull() {
+        try (BatchLoader<Long, String> loader = new BatchLoader<>("customer", batchFunction, keyExtractor,
+                1, 100, 1, 5000)) {
+            assertNull(loader.load(404L));
+        }
+    }
+
+    @Test
+    void testExceptionIsPropagatedToCallers() {
+        try (BatchLoader<Long, String> loader = new BatchLoader<>("customer", ids -> {
+            throw new IllegalStateException("查询失败");
+        }, keyExtractor, 1, 100, 1, 5000)) {
+            assertThrows(IllegalStateException.class, () -> loader.load(1L));
+            assertEquals(0, loader.getBatchCount());
+        }
+    }
+
+    @Test
+    void testBlockedBatchTimesOut() {
+        CountDownLatch release = new CountDownLatch(1);
+        try (BatchLoader<Long, String> loader = new BatchLoader<>("customer", ids -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return batchFunction.apply(ids);
+        }, keyExtractor, 1, 100, 1, 100)) {
+            // 批量查询卡住时调用方不会一直等待
+            IllegalStateException error = assertThrows(IllegalStateException.class, () -> loader.load(1L));
+            assertTrue(error.getMessage().contains("超时"));
+
+            // 加载器线程被占满时，多个key合计最多等待timeout毫秒
+            long start = System.nanoTime();
+            assertThrows(IllegalStateException.class, () -> loader.loadAll(Arrays.asList(2L, 3L, 4L)));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testCloseDispatchesPendingKeys() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            BatchLoader<Long, String> loader = new BatchLoader<>("customer", batchFunction, keyExtractor,
+                    60000, 100, 1, 5000);
+            Future<String> result = executor.submit(() -> loader.load(1L));
+            // 等待调用方进入等待队列
+            Thread.sleep(200);
+            loader.close();
+
+            // 窗口未结束就关闭时，已排队的key立即查询
+            assertEquals("customer-1", result.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testTransactionLoadsDirectly() {
+        try (BatchLoader<Long, String> loader = new BatchLoader<>("customer", batchFunction, keyExtractor,
+                1000, 2, 1, 5000)) {
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try {
+                // 读写事务中在当前线程查询，不等待合并窗口
+                assertEquals("customer-1", loader.load(1L));
+                assertEquals(3, loader.loadAll(Arrays.asList(1L, 2L, 3L)).size());
+
+                // 只读事务同样直接查询，等待中的调用方不占用事务连接
+                TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+                assertEquals("customer-4", loader.load(4L));
+            } finally {
+                TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+            }
+            assertEquals(Arrays.asList(Arrays.asList(1L), Arrays.asList(1L, 2L), Arrays.asList(3L),
+                    Arrays.asList(4L)), batches);
+            assertEquals(0, loader.getBatchCount());
+        }
+    }
+
+    @Test
+    void testRecentWriteLoadsDirectly() {
+        try (BatchLoader<Long, String> loader = new BatchLoader<>("customer", batchFunction, keyExtractor,
+                1000, 100, 1, 5000)) {
+            DataSourceContextHolder.setLastWriteTime(System.currentTimeMillis());
+
+            assertEquals("customer-1", loader.load(1L));
+            assertEquals(0, loader.getBatchCount());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.config;
+
+import com.example.annotation.DataSourceType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DataSourceContextHolder测试类
+ */
+class DataSourceContextHolderTest {
+
+    @AfterEach
+    void tearDown() {
+        DataSourceContextHolder.clearDataSourceType();
+    }
+
+    @Test
+    void testNestedScopeRestoresOuterType() {
+        DataSourceContextHolder.push(DataSourceType.SLAVE);
+        DataSourceContextHolder.push(DataSourceType.MASTER);
+        assertEquals(DataSourceType.MASTER, DataSourceContextHolder.getDataSourceType());
+
+        DataSourceContextHolder.poll();
+        assertEquals(DataSourceType.SLAVE, DataSourceContextHolder.getDataSourceType());
+
+        DataSourceContextHolder.poll();
+        assertEquals(DataSourceType.MASTER, DataSourceContextHolder.getDataSourceType());
+    }
+
+    @Test
+    void testPollWithoutPushIsIgnored() {
+        DataSourceContextHolder.poll();
+        assertEquals(DataSourceType.MASTER, DataSourceContextHolder.getDataSourceType());
+    }
+
+    @Test
+    void testSetDataSourceTypeReplacesCurrentScope() {
+        DataSourceContextHolder.push(DataSourceType.MASTER);
+        DataSourceContextHolder.push(DataSourceType.MASTER);
+        DataSourceContextHolder.setDataSourceType(DataSourceType.SLAVE);
+        assertEquals(DataSourceType.SLAVE, DataSourceContextHolder.getDataSourceType());
+
+        DataSourceContextHolder.poll();
+        assertEquals(DataSourceType.MASTER, DataSourceContextHolder.getDataSourceType());
+    }
+
+    @Test
+    void testClearRemovesAllScopes() {
+        DataSourceContextHolder.push(DataSourceType.SLAVE);
+        DataSourceContextHolder.push(DataSourceType.SLAVE);
+        DataSourceContextHolder.clearDataSourceType();
+        assertEquals(DataSourceType.MASTER, DataSourceContextHolder.getDataSourceType());
+    }
+
+    @Test
+    void testRoutedKeyIsClearedWithOutermostScope() {
+        DataSourceContextHolder.push(DataSourceType.SLAVE);
+        DataSourceContextHolder.push(DataSourceType.MASTER);
+        DataSourceContextHolder.setRoutedKey("slave");
+
+        DataSourceContextHolder.poll();
+        assertEquals("slave", DataSourceContextHolder.getRoutedKey());
+
+        DataSourceContextHolder.poll();
+        assertEquals("unknown", DataSourceContextHolder.getRoutedKey());
+
+        DataSourceContextHolder.setRoutedKey("master");
+        DataSourceContextHolder.clearDataSourceType();
+        assertEquals("unknown", DataSourceContextHolder.getRoutedKey());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.config;
+
+import com.example.annotation.DataSourceType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DataSourceContextSnapshot测试类
+ */
+class DataSourceContextSnapshotTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        DataSourceContextHolder.clearDataSourceType();
+        DataSourceContextHolder.clearLastWriteTime();
+    }
+
+    @Test
+    void testContextIsPropagatedToWorkerThread() {
+        DataSourceContextHolder.push(DataSourceType.SLAVE);
+        DataSourceContextHolder.setLastWriteTime(1000L);
+
+        DataSourceType type = CompletableFuture.supplyAsync(
+                DataSourceContextSnapshot.capture().wrap(DataSourceContextHolder::getDataSourceType), executor).join();
+        long lastWriteTime = CompletableFuture.supplyAsync(
+                DataSourceContextSnapshot.capture().wrap(DataSourceContextHolder::getLastWriteTime), executor).join();
+
+        assertEquals(DataSourceType.SLAVE, type);
+        assertEquals(1000L, lastWriteTime);
+    }
+
+    @Test
+    void testWorkerContextIsRestoredAfterTask() {
+        DataSourceContextHolder.push(DataSourceType.SLAVE);
+        DataSourceContextHolder.setLastWriteTime(1000L);
+        CompletableFuture.runAsync(() -> { }, DataSourceContextSnapshot.wrap(executor)).join();
+
+        assertNull(CompletableFuture.supplyAsync(DataSourceContextHolder::peekDataSourceType, executor).join());
+        assertEquals(0L, CompletableFuture.supplyAsync(DataSourceContextHolder::getLastWriteTime, executor).join());
+    }
+
+    @Test
+    void testTaskDecoratorPropagatesContext() throws Exception {
+        DataSourceContextHolder.push(DataSourceType.SLAVE);
+        DataSourceType[] holder = new DataSourceType[1];
+        Runnable task = new DataSourceContextTaskDecorator()
+                .decorate(() -> holder[0] = DataSourceContextHolder.getDataSourceType());
+
+        executor.submit(task).get();
+        assertEquals(DataSourceType.SLAVE, holder[0]);
+    }
+}
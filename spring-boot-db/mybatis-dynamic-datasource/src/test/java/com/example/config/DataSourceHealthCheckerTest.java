@@ -0,0 +1,96 @@
+package com.example.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * DataSourceHealthChecker测试类
+ */
+class DataSourceHealthCheckerTest {
+
+    /**
+     * 模拟不可达从库：获取连接一直阻塞，直到测试结束
+     */
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final AtomicInteger blockedAttempts = new AtomicInteger();
+
+    private DataSourceHealthChecker healthChecker;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        DataSource master = mock(DataSource.class);
+        when(master.getConnection()).thenReturn(connection);
+        DataSource slave = mock(DataSource.class);
+        when(slave.getConnection()).thenReturn(connection);
+        DataSource unreachable = mock(DataSource.class);
+        when(unreachable.getConnection()).thenAnswer(invocation -> {
+            blockedAttempts.incrementAndGet();
+            release.await(30, TimeUnit.SECONDS);
+            throw new SQLTransientConnectionException("连接超时");
+        });
+
+        SlaveLoadBalancer balancer = new SlaveLoadBalancer();
+        balancer.addNode("slave", 1);
+        balancer.addNode("slave2", 1);
+        DynamicDataSource dynamicDataSource = new DynamicDataSource();
+        dynamicDataSource.setSlaveLoadBalancer(balancer);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put("master", master);
+        targets.put("slave", slave);
+        targets.put("slave2", unreachable);
+        dynamicDataSource.setTargetDataSources(targets);
+        dynamicDataSource.setDefaultTargetDataSource(master);
+        dynamicDataSource.afterPropertiesSet();
+
+        DynamicDataSourceProperties properties = new DynamicDataSourceProperties();
+        properties.getHealthCheck().setEnabled(false);
+        properties.getHealthCheck().setTimeout(1);
+        healthChecker = new DataSourceHealthChecker(dynamicDataSource, properties);
+        healthChecker.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        healthChecker.destroy();
+    }
+
+    @Test
+    void testUnreachableSlaveIsBoundedByTimeout() {
+        long start = System.nanoTime();
+        Map<String, Boolean> result = healthChecker.checkHealth();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 获取连接卡住的从库按超时判定为不可用，其他数据源照常检查
+        assertTrue(elapsed < 3000, "检查耗时: " + elapsed + "ms");
+        assertEquals(Boolean.TRUE, result.get("master"));
+        assertEquals(Boolean.TRUE, result.get("slave"));
+        assertEquals(Boolean.FALSE, result.get("slave2"));
+    }
+
+    @Test
+    void testStuckProbeIsNotRepeated() {
+        healthChecker.checkHealth();
+        healthChecker.checkHealth();
+
+        // 上一次校验仍未返回时不再占用新的线程
+        assertEquals(1, blockedAttempts.get());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.config;
+
+import com.example.annotation.DataSourceType;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DataSourceMetrics测试类
+ */
+class DataSourceMetricsTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final DataSourceMetrics dataSourceMetrics = new DataSourceMetrics(meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        DataSourceContextHolder.clearDataSourceType();
+    }
+
+    @Test
+    void testRoutingIsCountedByReason() {
+        SlaveLoadBalancer balancer = new SlaveLoadBalancer();
+        balancer.addNode("slave", 1);
+        HikariDataSource slave = new HikariDataSource();
+        DynamicDataSource dynamicDataSource = new DynamicDataSource();
+        dynamicDataSource.setTargetDataSources(Map.of("slave", slave));
+        dynamicDataSource.setSlaveLoadBalancer(balancer);
+        dynamicDataSource.setDataSourceMetrics(dataSourceMetrics);
+        dynamicDataSource.afterPropertiesSet();
+
+        DataSourceContextHolder.push(DataSourceType.SLAVE);
+        dynamicDataSource.determineTargetDataSource();
+        balancer.setAvailable("slave", false);
+        dynamicDataSource.determineCurrentLookupKey();
+
+        assertEquals(1.0, meterRegistry.get(DataSourceMetrics.ROUTING_METRIC)
+                .tags("target", "slave", "reason", "balanced").counter().count());
+        assertEquals(1.0, meterRegistry.get(DataSourceMetrics.ROUTING_METRIC)
+                .tags("target", "master", "reason", "fallback").counter().count());
+        assertEquals("slave", DataSourceContextHolder.getRoutedKey());
+    }
+
+    @Test
+    void testStatementTimerIsTagged() {
+        dataSourceMetrics.recordStatement("slave", "CustomerMapper.selectById", true, 1_000_000L);
+        dataSourceMetrics.recordStatement("slave", "CustomerMapper.selectById", false, 3_000_000L);
+
+        Timer success = meterRegistry.get(DataSourceMetrics.STATEMENT_METRIC)
+                .tags("target", "slave", "statement", "CustomerMapper.selectById", "outcome", "success").timer();
+        assertEquals(1, success.count());
+        assertEquals(1, meterRegistry.get(DataSourceMetrics.STATEMENT_METRIC)
+                .tags("outcome", "error").timer().count());
+    }
+
+    @Test
+    void testBindPoolRegistersHikariMetrics() throws Exception {
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setJdbcUrl("jdbc:h2:mem:metrics_slave");
+            dataSourceMetrics.bindPool("slave", dataSource);
+            try (Connection connection = dataSource.getConnection()) {
+                assertTrue(connection.isValid(1));
+            }
+
+            assertEquals("slave", dataSource.getPoolName());
+            assertNotNull(meterRegistry.find("hikaricp.connections.acquire").tag("pool", "slave").timer());
+        }
+    }
+}
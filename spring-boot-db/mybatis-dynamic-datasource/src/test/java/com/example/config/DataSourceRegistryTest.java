@@ -0,0 +1,119 @@
+package com.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DataSourceRegistry测试类
+ */
+class DataSourceRegistryTest {
+
+    private DynamicDataSource dynamicDataSource;
+
+    private DataSourceRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        HikariDataSource master = new HikariDataSource();
+        master.setJdbcUrl("jdbc:h2:mem:registry_master");
+
+        dynamicDataSource = new DynamicDataSource();
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put("master", master);
+        dynamicDataSource.setTargetDataSources(targetDataSources);
+        dynamicDataSource.setDefaultTargetDataSource(master);
+        dynamicDataSource.afterPropertiesSet();
+
+        DynamicDataSourceProperties properties = new DynamicDataSourceProperties();
+        properties.setDrainTimeout(2000);
+        // 只有配置文件中定义的从库可以在运行期加入
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.slave2.jdbc-url", "jdbc:h2:mem:registry_slave2")
+                .withProperty("spring.datasource.slave2.username", "sa")
+                .withProperty("spring.datasource.slave2.password", "");
+        registry = new DataSourceRegistry(dynamicDataSource, properties,
+                new DataSourceMetrics(new SimpleMeterRegistry()), environment);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        registry.destroy();
+        dynamicDataSource.destroy();
+    }
+
+    @Test
+    void testAddDrainAndResumeSlave() {
+        registry.addSlave(definition("slave2", 2));
+        assertTrue(dynamicDataSource.getResolvedDataSources().containsKey("slave2"));
+        assertEquals(2, dynamicDataSource.getSlaveLoadBalancer().getWeights().get("slave2"));
+
+        registry.drain("slave2");
+        assertNull(dynamicDataSource.getSlaveLoadBalancer().select());
+        assertEquals("DRAINED", registry.getDataSource("slave2").get("status"));
+
+        registry.resume("slave2");
+        assertEquals("slave2", dynamicDataSource.getSlaveLoadBalancer().select());
+    }
+
+    @Test
+    void testRemoveClosesPoolAfterConnectionsReturned() throws Exception {
+        registry.addSlave(definition("slave2", 1));
+        HikariDataSource slave = (HikariDataSource) dynamicDataSource.getResolvedDataSources().get("slave2");
+
+        Connection connection = slave.getConnection();
+        registry.remove("slave2");
+        assertFalse(dynamicDataSource.getResolvedDataSources().containsKey("slave2"));
+        assertFalse(dynamicDataSource.getSlaveLoadBalancer().contains("slave2"));
+
+        // 使用中的连接不受影响
+        assertTrue(connection.isValid(1));
+        Thread.sleep(600);
+        assertFalse(slave.isClosed());
+
+        connection.close();
+        long deadline = System.currentTimeMillis() + 3000;
+        while (!slave.isClosed() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertTrue(slave.isClosed());
+    }
+
+    @Test
+    void testResizePool() {
+        registry.resize("master", 5, 2);
+
+        HikariDataSource master = (HikariDataSource) dynamicDataSource.getResolvedDataSources().get("master");
+        assertEquals(5, master.getMaximumPoolSize());
+        assertEquals(2, master.getMinimumIdle());
+        assertThrows(IllegalArgumentException.class, () -> registry.resize("master", 1, 3));
+    }
+
+    @Test
+    void testInvalidOperations() {
+        assertThrows(IllegalArgumentException.class, () -> registry.addSlave(definition("master", 1)));
+        // 未在配置文件中定义的从库不能添加
+        assertThrows(IllegalArgumentException.class, () -> registry.addSlave(definition("slave3", 1)));
+        assertFalse(dynamicDataSource.getResolvedDataSources().containsKey("slave3"));
+        assertThrows(IllegalArgumentException.class, () -> registry.remove("master"));
+        assertThrows(IllegalArgumentException.class, () -> registry.drain("unknown"));
+        assertThrows(IllegalArgumentException.class, () -> registry.resume("unknown"));
+        assertThrows(IllegalArgumentException.class, () -> registry.remove("unknown"));
+    }
+
+    private DataSourceDefinition definition(String name, int weight) {
+        DataSourceDefinition definition = new DataSourceDefinition();
+        definition.setName(name);
+        definition.setWeight(weight);
+        return definition;
+    }
+}
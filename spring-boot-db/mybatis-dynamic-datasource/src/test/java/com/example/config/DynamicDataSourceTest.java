@@ -0,0 +1,58 @@
+package com.example.config;
+
+import com.example.annotation.DataSourceType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DynamicDataSource路由测试类
+ */
+class DynamicDataSourceTest {
+
+    private DynamicDataSource dynamicDataSource;
+
+    @BeforeEach
+    void setUp() {
+        SlaveLoadBalancer balancer = new SlaveLoadBalancer();
+        balancer.addNode("slave", 1);
+        dynamicDataSource = new DynamicDataSource();
+        dynamicDataSource.setSlaveLoadBalancer(balancer);
+        dynamicDataSource.setReadYourWritesWindow(2000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DataSourceContextHolder.clearDataSourceType();
+        DataSourceContextHolder.clearLastWriteTime();
+    }
+
+    @Test
+    void testReadRoutedToSlaveWithoutWrite() {
+        DataSourceContextHolder.setDataSourceType(DataSourceType.SLAVE);
+        assertEquals("slave", dynamicDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testReadRoutedToMasterAfterWrite() {
+        DataSourceContextHolder.markWrite();
+        DataSourceContextHolder.setDataSourceType(DataSourceType.SLAVE);
+        assertEquals("master", dynamicDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testReadRoutedToSlaveAfterWindow() {
+        DataSourceContextHolder.setLastWriteTime(System.currentTimeMillis() - 5000);
+        DataSourceContextHolder.setDataSourceType(DataSourceType.SLAVE);
+        assertEquals("slave", dynamicDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testReadFallsBackToMasterWithoutAvailableSlave() {
+        dynamicDataSource.getSlaveLoadBalancer().setAvailable("slave", false);
+        DataSourceContextHolder.setDataSourceType(DataSourceType.SLAVE);
+        assertEquals("master", dynamicDataSource.determineCurrentLookupKey());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ExistenceFilter测试类
+ */
+class ExistenceFilterTest {
+
+    @Test
+    void testFallThroughBeforeFirstRebuild() {
+        ExistenceFilter filter = new ExistenceFilter("test", sink -> sink.accept("CUST001"), 100, 0.01);
+
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightContain("CUST999"));
+        assertEquals(0, filter.getNegativeCount());
+    }
+
+    @Test
+    void testRebuild() {
+        List<String> codes = new ArrayList<>(List.of("CUST001", "CUST002"));
+        ExistenceFilter filter = new ExistenceFilter("test", sink -> codes.forEach(sink), 100, 0.01);
+
+        assertEquals(2, filter.rebuild());
+        assertTrue(filter.isReady());
+        assertTrue(filter.mightContain("CUST001"));
+        assertFalse(filter.mightContain("CUST999"));
+        assertEquals(1, filter.getNegativeCount());
+
+        // 重建后已删除的编码不再判定为可能存在
+        codes.remove("CUST001");
+        filter.rebuild();
+        assertFalse(filter.mightContain("CUST001"));
+        assertTrue(filter.mightContain(null));
+    }
+
+    @Test
+    void testPutDuringRebuildIsKept() {
+        ExistenceFilter[] holder = new ExistenceFilter[1];
+        ExistenceFilter filter = new ExistenceFilter("test", sink -> {
+            sink.accept("CUST001");
+            // 模拟重建读取期间其他事务提交了新编码
+            holder[0].putAfterCommit("CUST002");
+        }, 100, 0.01);
+        holder[0] = filter;
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContain("CUST002"));
+    }
+
+    @Test
+    void testPutAfterCommit() {
+        ExistenceFilter filter = new ExistenceFilter("test", sink -> { }, 100, 0.01);
+        filter.rebuild();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // 同一事务中随后的查询能查到刚写入的编码
+            filter.putAfterCommit("CUST001");
+            assertTrue(filter.mightContain("CUST001"));
+
+            // 提交前发生重建，数据库中还读不到该编码，提交后重新加入
+            filter.rebuild();
+            assertFalse(filter.mightContain("CUST001"));
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(filter.mightContain("CUST001"));
+    }
+}
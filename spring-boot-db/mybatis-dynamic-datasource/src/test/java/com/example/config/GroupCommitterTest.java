@@ -0,0 +1,173 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GroupCommitter测试类
+ */
+class GroupCommitterTest {
+
+    /**
+     * 每次整组写入收到的记录
+     */
+    private final List<List<String>> groups = new CopyOnWriteArrayList<>();
+
+    /**
+     * 已写入的记录，模拟唯一约束
+     */
+    private final Set<String> committed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 模拟一个事务：任意一行重复时整组回滚
+     */
+    private final Consumer<List<String>> groupWriter = records -> {
+        groups.add(new ArrayList<>(records));
+        if (records.stream().distinct().count() < records.size()
+                || records.stream().anyMatch(committed::contains)) {
+            throw new IllegalStateException("重复: " + records);
+        }
+        committed.addAll(records);
+    };
+
+    private final Consumer<String> singleWriter = record -> {
+        if (!committed.add(record)) {
+            throw new IllegalStateException("重复: " + record);
+        }
+    };
+
+    @Test
+    void testConcurrentSubmitsShareOneCommit() throws Exception {
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try (GroupCommitter<String> committer = new GroupCommitter<>("customer", groupWriter, singleWriter,
+                200, 100, 1, 5000)) {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                String record = "C" + i;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    committer.submit(record);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(5, TimeUnit.SECONDS);
+            }
+
+            // 窗口足够长，8个调用方合并为一次提交
+            assertEquals(1, groups.size());
+            assertEquals(callers, committed.size());
+            assertEquals(1, committer.getGroupCount());
+            assertEquals(callers, committer.getRecordCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailedGroupReportsPerRowErrors() throws Exception {
+        committed.add("C1");
+        List<String> records = Arrays.asList("C0", "C1", "C2");
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(records.size());
+        try (GroupCommitter<String> committer = new GroupCommitter<>("customer", groupWriter, singleWriter,
+                60000, records.size(), 1, 5000)) {
+            List<Future<?>> results = new ArrayList<>();
+            for (String record : records) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    committer.submit(record);
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            // 达到组大小时立即提交；只有重复的那一行失败，其他行逐行提交成功
+            results.get(0).get(5, TimeUnit.SECONDS);
+            Exception error = assertThrows(Exception.class, () -> results.get(1).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, error.getCause());
+            results.get(2).get(5, TimeUnit.SECONDS);
+            assertTrue(committed.containsAll(records));
+            assertEquals(1, committer.getFallbackCount());
+            assertEquals(0, committer.getGroupCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSingleRecordErrorIsNotRetried() {
+        committed.add("C1");
+        try (GroupCommitter<String> committer = new GroupCommitter<>("customer", groupWriter, record -> {
+            throw new AssertionError("单行失败时不应重试");
+        }, 1, 100, 1, 5000)) {
+            assertThrows(IllegalStateException.class, () -> committer.submit("C1"));
+            assertEquals(0, committer.getFallbackCount());
+        }
+    }
+
+    @Test
+    void testCloseCommitsPendingRecords() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            GroupCommitter<String> committer = new GroupCommitter<>("customer", groupWriter, singleWriter,
+                    60000, 100, 1, 5000);
+            Future<?> result = executor.submit(() -> committer.submit("C0"));
+            // 等待调用方进入等待队列
+            Thread.sleep(200);
+            committer.close();
+
+            result.get(5, TimeUnit.SECONDS);
+            assertTrue(committed.contains("C0"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testTimeoutWithdrawsQueuedRecord() {
+        try (GroupCommitter<String> committer = new GroupCommitter<>("customer", groupWriter, singleWriter,
+                60000, 100, 1, 100)) {
+            // 窗口未结束，记录还在排队，超时后撤回
+            IllegalStateException error = assertThrows(IllegalStateException.class, () -> committer.submit("C0"));
+            assertTrue(error.getMessage().contains("未写入"));
+            committer.close();
+            assertFalse(committed.contains("C0"));
+        }
+    }
+
+    @Test
+    void testTimeoutWhileCommitting() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (GroupCommitter<String> committer = new GroupCommitter<>("customer", records -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            groupWriter.accept(records);
+        }, singleWriter, 1, 100, 1, 100)) {
+            // 提交卡住时调用方不会一直等待，记录可能已写入
+            IllegalStateException error = assertThrows(IllegalStateException.class, () -> committer.submit("C0"));
+            assertTrue(error.getMessage().contains("可能已写入"));
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LocalCache测试类
+ */
+class LocalCacheTest {
+
+    @Test
+    void testReadThrough() {
+        LocalCache<Long, String> cache = new LocalCache<>("test", 10, 60000);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("1", cache.get(1L, key -> {
+            loads.incrementAndGet();
+            return String.valueOf(key);
+        }));
+        assertEquals("1", cache.get(1L, key -> {
+            loads.incrementAndGet();
+            return String.valueOf(key);
+        }));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void testNullIsNotCached() {
+        LocalCache<Long, String> cache = new LocalCache<>("test", 10, 60000);
+
+        assertNull(cache.get(1L, key -> null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        LocalCache<Long, String> cache = new LocalCache<>("test", 2, 60000);
+        cache.put(1L, "1");
+        cache.put(2L, "2");
+        cache.getIfPresent(1L);
+        cache.put(3L, "3");
+
+        assertEquals(2, cache.size());
+        assertEquals("1", cache.getIfPresent(1L));
+        assertNull(cache.getIfPresent(2L));
+    }
+
+    @Test
+    void testConcurrentAccessStaysWithinMaximumSize() throws Exception {
+        LocalCache<Long, String> cache = new LocalCache<>("test", 100, 60000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                long offset = 1000L + t * 1000L;
+                futures.add(executor.submit(() -> {
+                    for (long i = 0; i < 1000; i++) {
+                        assertEquals(String.valueOf(i % 150), cache.get(i % 150, String::valueOf));
+                        cache.put(offset + i, "x");
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(cache.size() <= 100);
+    }
+
+    @Test
+    void testExpiredEntryIsReloaded() throws InterruptedException {
+        LocalCache<Long, String> cache = new LocalCache<>("test", 10, 20);
+        cache.put(1L, "old");
+        Thread.sleep(50);
+
+        assertNull(cache.getIfPresent(1L));
+        assertEquals("new", cache.get(1L, key -> "new"));
+    }
+
+    @Test
+    void testEvictAfterCommit() {
+        LocalCache<Long, String> cache = new LocalCache<>("test", 10, 60000);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.put(1L, "old");
+            cache.evictAfterCommit(1L);
+            assertNull(cache.getIfPresent(1L));
+
+            // 事务提交前被其他线程重新加载的旧数据在提交后被移除
+            cache.put(1L, "old");
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertNull(cache.getIfPresent(1L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testMetrics() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LocalCache<Long, String> cache = new LocalCache<>("customer", 10, 60000);
+        cache.bindTo(meterRegistry);
+        cache.get(1L, String::valueOf);
+        cache.get(1L, String::valueOf);
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "customer", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "customer", "result", "miss")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.size").tag("cache", "customer").gauge().value());
+    }
+}
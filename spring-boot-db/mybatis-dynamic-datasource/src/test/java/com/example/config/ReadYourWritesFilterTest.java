@@ -0,0 +1,50 @@
+package com.example.config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ReadYourWritesFilter测试类
+ */
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(new DynamicDataSourceProperties());
+
+    @Test
+    void testRecentWriteTimeIsAccepted() throws Exception {
+        long writeTime = System.currentTimeMillis() - 500;
+        assertEquals(writeTime, lastWriteTimeSeenBy(String.valueOf(writeTime)));
+    }
+
+    @Test
+    void testFutureWriteTimeIsIgnored() throws Exception {
+        // 客户端伪造的未来时间不能让读请求一直路由到主库
+        assertEquals(0L, lastWriteTimeSeenBy(String.valueOf(System.currentTimeMillis() + 3600_000)));
+        assertEquals(0L, lastWriteTimeSeenBy(String.valueOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void testExpiredOrInvalidWriteTimeIsIgnored() throws Exception {
+        assertEquals(0L, lastWriteTimeSeenBy(String.valueOf(System.currentTimeMillis() - 60_000)));
+        assertEquals(0L, lastWriteTimeSeenBy("abc"));
+    }
+
+    /**
+     * 携带Cookie执行一次请求，返回请求处理过程中看到的写时间戳
+     */
+    private long lastWriteTimeSeenBy(String cookieValue) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customers/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.LAST_WRITE_COOKIE, cookieValue));
+        AtomicLong seen = new AtomicLong(-1);
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> seen.set(DataSourceContextHolder.getLastWriteTime()));
+        assertEquals(0L, DataSourceContextHolder.getLastWriteTime());
+        return seen.get();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SingleFlight测试类
+ */
+class SingleFlightTest {
+
+    @AfterEach
+    void tearDown() {
+        DataSourceContextHolder.clearLastWriteTime();
+    }
+
+    @Test
+    void testConcurrentCallsShareOneLoad() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<String> leader = executor.submit(() -> flight.execute(1L, key -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "customer-" + key;
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            List<Future<String>> followers = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                followers.add(executor.submit(() -> flight.execute(1L, key -> {
+                    loads.incrementAndGet();
+                    return "unexpected";
+                })));
+            }
+            // 等待跟随者进入等待状态后再结束查询
+            long deadline = System.currentTimeMillis() + 5000;
+            while (flight.getSharedCount() < 7 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            assertEquals("customer-1", leader.get(5, TimeUnit.SECONDS));
+            for (Future<String> follower : followers) {
+                assertEquals("customer-1", follower.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(7, flight.getSharedCount());
+        // 查询结束后不保留结果
+        assertEquals("again", flight.execute(1L, key -> "again"));
+    }
+
+    @Test
+    void testExceptionIsShared() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> flight.execute(1L, key -> {
+                loading.countDown();
+                await(release);
+                throw new IllegalStateException("查询失败");
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<String> follower = executor.submit(() -> flight.execute(1L, key -> "unexpected"));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (flight.getSharedCount() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, leaderError.getCause());
+            assertInstanceOf(IllegalStateException.class, followerError.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testReadWriteTransactionIsNotShared() {
+        SingleFlight<Long, String> flight = new SingleFlight<>();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            AtomicInteger loads = new AtomicInteger();
+            // 读写事务中直接执行loader，嵌套调用相同key也不会等待自身的结果
+            String value = flight.execute(1L, key -> flight.execute(key, inner -> "v" + loads.incrementAndGet()));
+            assertEquals("v1", value);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertEquals(0, flight.getSharedCount());
+    }
+
+    @Test
+    void testRecentWriteIsNotShared() {
+        SingleFlight<Long, String> flight = new SingleFlight<>();
+        DataSourceContextHolder.setLastWriteTime(System.currentTimeMillis());
+
+        String value = flight.execute(1L, key -> flight.execute(key, inner -> "master"));
+
+        assertEquals("master", value);
+        assertEquals(0, flight.getSharedCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
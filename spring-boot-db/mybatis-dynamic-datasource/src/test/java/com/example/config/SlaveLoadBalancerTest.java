@@ -0,0 +1,106 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SlaveLoadBalancer测试类
+ */
+class SlaveLoadBalancerTest {
+
+    @Test
+    void testSmoothWeightedRoundRobin() {
+        SlaveLoadBalancer balancer = new SlaveLoadBalancer();
+        balancer.addNode("a", 5);
+        balancer.addNode("b", 1);
+        balancer.addNode("c", 1);
+
+        List<String> selected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            selected.add(balancer.select());
+        }
+
+        assertEquals(List.of("a", "a", "b", "a", "c", "a", "a"), selected);
+    }
+
+    @Test
+    void testDistributionFollowsWeight() {
+        SlaveLoadBalancer balancer = new SlaveLoadBalancer();
+        balancer.addNode("slave", 2);
+        balancer.addNode("slave2", 1);
+        balancer.addNode("slave3", 1);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 400; i++) {
+            counts.merge(balancer.select(), 1, Integer::sum);
+        }
+
+        assertEquals(200, counts.get("slave"));
+        assertEquals(100, counts.get("slave2"));
+        assertEquals(100, counts.get("slave3"));
+    }
+
+    @Test
+    void testUnavailableNodeIsSkipped() {
+        SlaveLoadBalancer balancer = new SlaveLoadBalancer();
+        balancer.addNode("slave", 1);
+        balancer.addNode("slave2", 1);
+
+        assertTrue(balancer.setAvailable("slave", false));
+        assertFalse(balancer.setAvailable("slave", false));
+        for (int i = 0; i < 10; i++) {
+            assertEquals("slave2", balancer.select());
+        }
+        assertEquals(List.of("slave2"), balancer.getAvailableKeys());
+
+        assertTrue(balancer.setAvailable("slave", true));
+        List<String> selected = List.of(balancer.select(), balancer.select());
+        assertTrue(selected.contains("slave"));
+        assertTrue(selected.contains("slave2"));
+    }
+
+    @Test
+    void testAllNodesUnavailable() {
+        SlaveLoadBalancer balancer = new SlaveLoadBalancer();
+        balancer.addNode("slave", 1);
+        balancer.setAvailable("slave", false);
+
+        assertNull(balancer.select());
+        assertFalse(balancer.setAvailable("unknown", false));
+    }
+
+    @Test
+    void testRemoveNode() {
+        SlaveLoadBalancer balancer = new SlaveLoadBalancer();
+        balancer.addNode("slave", 1);
+        balancer.addNode("slave2", 1);
+
+        assertTrue(balancer.removeNode("slave"));
+        assertFalse(balancer.removeNode("slave"));
+        assertFalse(balancer.contains("slave"));
+        assertEquals("slave2", balancer.select());
+        assertEquals("slave2", balancer.select());
+    }
+
+    @Test
+    void testSelectWithoutNodes() {
+        SlaveLoadBalancer balancer = new SlaveLoadBalancer();
+        assertNull(balancer.select());
+    }
+
+    @Test
+    void testAddInvalidNode() {
+        SlaveLoadBalancer balancer = new SlaveLoadBalancer();
+        balancer.addNode("slave", 1);
+
+        assertThrows(IllegalArgumentException.class, () -> balancer.addNode("slave", 1));
+        assertThrows(IllegalArgumentException.class, () -> balancer.addNode("slave2", 0));
+        assertThrows(IllegalArgumentException.class, () -> balancer.addNode(null, 1));
+    }
+}
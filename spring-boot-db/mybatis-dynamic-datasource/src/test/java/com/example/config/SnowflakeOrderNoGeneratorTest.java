@@ -0,0 +1,97 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SnowflakeOrderNoGenerator测试类
+ */
+class SnowflakeOrderNoGeneratorTest {
+
+    private static final long NOW = SnowflakeOrderNoGenerator.EPOCH + 1000;
+
+    @Test
+    void testIdLayout() {
+        SnowflakeOrderNoGenerator generator = new SnowflakeOrderNoGenerator("ORD", 5, () -> NOW);
+
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        int shift = SnowflakeOrderNoGenerator.NODE_BITS + SnowflakeOrderNoGenerator.SEQUENCE_BITS;
+        assertEquals(1000, first >>> shift);
+        assertEquals(5, (first >>> SnowflakeOrderNoGenerator.SEQUENCE_BITS) & SnowflakeOrderNoGenerator.MAX_NODE_ID);
+        assertEquals(first + 1, second);
+        assertTrue(generator.nextOrderNo().startsWith("ORD"));
+    }
+
+    @Test
+    void testSequenceOverflowBorrowsNextMillisecond() {
+        SnowflakeOrderNoGenerator generator = new SnowflakeOrderNoGenerator("", 0, () -> NOW);
+        int shift = SnowflakeOrderNoGenerator.NODE_BITS + SnowflakeOrderNoGenerator.SEQUENCE_BITS;
+
+        long last = 0;
+        for (int i = 0; i <= 1 << SnowflakeOrderNoGenerator.SEQUENCE_BITS; i++) {
+            long id = generator.nextId();
+            assertTrue(id > last);
+            last = id;
+        }
+
+        assertEquals(1001, last >>> shift);
+    }
+
+    @Test
+    void testClockMovesBackwards() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeOrderNoGenerator generator = new SnowflakeOrderNoGenerator("", 0, clock::get);
+
+        long before = generator.nextId();
+        clock.set(NOW - 5000);
+        long after = generator.nextId();
+        clock.set(NOW + 10);
+        long recovered = generator.nextId();
+
+        assertTrue(after > before);
+        assertTrue(recovered > after);
+    }
+
+    @Test
+    void testConcurrentUniqueness() throws Exception {
+        SnowflakeOrderNoGenerator generator = new SnowflakeOrderNoGenerator("ORD", 1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Set<String> orderNos = ConcurrentHashMap.newKeySet();
+        try {
+            List<Future<?>> futures = IntStream.range(0, 8)
+                    .mapToObj(i -> executor.submit(() -> {
+                        for (int j = 0; j < 50000; j++) {
+                            orderNos.add(generator.nextOrderNo());
+                        }
+                    }))
+                    .collect(Collectors.toList());
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(400000, orderNos.size());
+    }
+
+    @Test
+    void testInvalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeOrderNoGenerator("ORD", -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeOrderNoGenerator("ORD", SnowflakeOrderNoGenerator.MAX_NODE_ID + 1));
+    }
+}
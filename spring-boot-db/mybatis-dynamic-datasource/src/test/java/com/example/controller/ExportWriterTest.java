@@ -0,0 +1,85 @@
+package com.example.controller;
+
+import com.example.domain.Customer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ExportWriter测试类
+ */
+class ExportWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void testWriteJsonLines() throws IOException {
+        StringWriter output = new StringWriter();
+        ExportWriter<Customer> writer = new ExportWriter<>(ExportWriter.Format.JSONL, output, objectMapper, columns());
+
+        writer.accept(customer(1L, "张三"));
+        writer.accept(customer(2L, "李四"));
+        writer.finish();
+
+        String[] lines = output.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("张三", objectMapper.readTree(lines[0]).get("customerName").asText());
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+
+    @Test
+    void testWriteCsv() throws IOException {
+        StringWriter output = new StringWriter();
+        ExportWriter<Customer> writer = new ExportWriter<>(ExportWriter.Format.CSV, output, objectMapper, columns());
+
+        Customer customer = customer(1L, "张三");
+        customer.setRemark("VIP, \"重点\"客户");
+        writer.accept(customer);
+        writer.accept(customer(2L, "李四"));
+        writer.finish();
+
+        assertEquals("id,customerName,remark\n"
+                + "1,张三,\"VIP, \"\"重点\"\"客户\"\n"
+                + "2,李四,\n", output.toString());
+    }
+
+    @Test
+    void testWriteCsvHeaderWithoutRows() throws IOException {
+        StringWriter output = new StringWriter();
+        ExportWriter<Customer> writer = new ExportWriter<>(ExportWriter.Format.CSV, output, objectMapper, columns());
+
+        writer.finish();
+
+        assertEquals("id,customerName,remark\n", output.toString());
+    }
+
+    @Test
+    void testParseFormat() {
+        assertEquals(ExportWriter.Format.JSONL, ExportWriter.Format.of("jsonl"));
+        assertEquals(ExportWriter.Format.CSV, ExportWriter.Format.of("CSV"));
+        assertThrows(IllegalArgumentException.class, () -> ExportWriter.Format.of("xml"));
+    }
+
+    private static Map<String, Function<Customer, Object>> columns() {
+        Map<String, Function<Customer, Object>> columns = new LinkedHashMap<>();
+        columns.put("id", Customer::getId);
+        columns.put("customerName", Customer::getCustomerName);
+        columns.put("remark", Customer::getRemark);
+        return columns;
+    }
+
+    private static Customer customer(Long id, String name) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setCustomerName(name);
+        return customer;
+    }
+}
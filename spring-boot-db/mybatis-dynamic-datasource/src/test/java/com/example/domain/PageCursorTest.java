@@ -0,0 +1,41 @@
+package com.example.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PageCursor测试类
+ */
+class PageCursorTest {
+
+    @Test
+    void testEncodeAndDecode() {
+        PageCursor cursor = new PageCursor(LocalDateTime.of(2024, 1, 1, 10, 0, 0, 123000000), 42L);
+
+        String value = cursor.encode();
+        PageCursor decoded = PageCursor.decode(value);
+
+        assertEquals(cursor, decoded);
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0, 0, 123000000), decoded.getCreateTime());
+        assertEquals(42L, decoded.getId());
+        // 可以直接放在URL参数中
+        assertTrue(value.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void testDecodeInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(new PageCursor(LocalDateTime.now(), 1L)
+                .encode().substring(2)));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("MTIz"));
+    }
+
+    @Test
+    void testCreateWithNullValue() {
+        assertThrows(IllegalArgumentException.class, () -> new PageCursor(null, 1L));
+        assertThrows(IllegalArgumentException.class, () -> new PageCursor(LocalDateTime.now(), null));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StatusCount测试类
+ */
+class StatusCountTest {
+
+    @Test
+    void testToMap() {
+        Map<String, Integer> statusCounts = StatusCount.toMap(List.of(
+                new StatusCount("ACTIVE", 8),
+                new StatusCount("INACTIVE", 2),
+                new StatusCount(null, 1)));
+
+        assertEquals(List.of("ACTIVE", "INACTIVE", StatusCount.UNKNOWN_STATUS), List.copyOf(statusCounts.keySet()));
+        assertEquals(8, statusCounts.get("ACTIVE"));
+        assertEquals(1, statusCounts.get(StatusCount.UNKNOWN_STATUS));
+        assertEquals(11, StatusCount.total(statusCounts));
+    }
+
+    @Test
+    void testEmptyResult() {
+        Map<String, Integer> statusCounts = StatusCount.toMap(Collections.emptyList());
+
+        assertTrue(statusCounts.isEmpty());
+        assertEquals(0, StatusCount.total(statusCounts));
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.service;
+
+import com.example.config.DynamicDataSource;
+import com.example.domain.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CustomerGroupCommitter测试类
+ * 开启组提交，使用独立的主库内存库，组提交在自己的线程中提交，不随测试回滚
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.master.jdbc-url=jdbc:h2:mem:group_commit_test;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+        "group-commit.enabled=true",
+        "group-commit.window=60000",
+        "group-commit.max-group-size=3"
+})
+@ActiveProfiles("test")
+class CustomerGroupCommitterTest {
+
+    @Autowired
+    private CustomerGroupCommitter customerGroupCommitter;
+
+    @Autowired
+    private DynamicDataSource dynamicDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate masterJdbcTemplate;
+
+    /**
+     * 组提交固定写主库，直接查询主库校验结果
+     */
+    @BeforeEach
+    void initDatabase() {
+        DataSource master = dynamicDataSource.getResolvedDataSources().get("master");
+        new ResourceDatabasePopulator(new ClassPathResource("sql/master-test-schema.sql")).execute(master);
+        masterJdbcTemplate = new JdbcTemplate(master);
+    }
+
+    @Test
+    void testGroupInsertBackfillsIds() throws Exception {
+        List<Customer> customers = List.of(createCustomer("GROUP001"), createCustomer("GROUP002"),
+                createCustomer("GROUP003"));
+
+        // 达到组大小后一次提交
+        for (Future<?> result : submitConcurrently(customers)) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+
+        for (Customer customer : customers) {
+            assertNotNull(customer.getId());
+            assertEquals(customer.getId(), selectId(customer.getCustomerCode()));
+        }
+    }
+
+    @Test
+    void testFallbackReassignsIds() throws Exception {
+        insertInOwnTransaction(createCustomer("FALLBACK002"));
+        List<Customer> customers = List.of(createCustomer("FALLBACK001"), createCustomer("FALLBACK002"),
+                createCustomer("FALLBACK003"));
+
+        // 编码重复的一行导致整组回滚，再逐行提交
+        List<Future<?>> results = submitConcurrently(customers);
+        results.get(0).get(5, TimeUnit.SECONDS);
+        ExecutionException error = assertThrows(ExecutionException.class, () -> results.get(1).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DuplicateKeyException.class, error.getCause());
+        results.get(2).get(5, TimeUnit.SECONDS);
+
+        // 整组回滚时回填的主键已清除，逐行提交后重新回填为实际写入的主键
+        assertEquals(customers.get(0).getId(), selectId("FALLBACK001"));
+        assertEquals(customers.get(2).getId(), selectId("FALLBACK003"));
+    }
+
+    @Test
+    void testCallerTransactionBypassesGrouping() {
+        Customer customer = createCustomer("TX001");
+
+        // 调用方已在事务中时直接插入，不等待合并窗口，并随调用方的事务回滚
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertEquals(1, customerGroupCommitter.insert(customer));
+            status.setRollbackOnly();
+        });
+
+        assertNotNull(customer.getId());
+        assertEquals(0, masterJdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM customers WHERE customer_code = ?", Integer.class, "TX001"));
+    }
+
+    private List<Future<?>> submitConcurrently(List<Customer> customers) {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(customers.size());
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (Customer customer : customers) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    customerGroupCommitter.insert(customer);
+                    return null;
+                }));
+            }
+            start.countDown();
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 在事务中插入，不参与组提交
+     */
+    private void insertInOwnTransaction(Customer customer) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> customerGroupCommitter.insert(customer));
+    }
+
+    private Long selectId(String customerCode) {
+        return masterJdbcTemplate.queryForObject("SELECT id FROM customers WHERE customer_code = ?", Long.class,
+                customerCode);
+    }
+
+    private Customer createCustomer(String customerCode) {
+        Customer customer = new Customer();
+        customer.setCustomerCode(customerCode);
+        customer.setCustomerName("组提交客户" + customerCode);
+        customer.setEmail(customerCode.toLowerCase() + "@example.com");
+        customer.setStatus("ACTIVE");
+        return customer;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.service;
+
+import com.example.mapper.RowCounterMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * RowCounterService测试类
+ */
+@ExtendWith(MockitoExtension.class)
+class RowCounterServiceTest {
+
+    @Mock
+    private RowCounterMapper rowCounterMapper;
+
+    @InjectMocks
+    private RowCounterService rowCounterService;
+
+    @Test
+    void testIncrement() {
+        when(rowCounterMapper.updateRowCount(eq(RowCounterService.CUSTOMERS), anyInt(), eq(-2L))).thenReturn(1);
+
+        rowCounterService.increment(RowCounterService.CUSTOMERS, -2);
+        rowCounterService.increment(RowCounterService.CUSTOMERS, 0);
+
+        verify(rowCounterMapper).updateRowCount(eq(RowCounterService.CUSTOMERS), anyInt(), eq(-2L));
+        verifyNoMoreInteractions(rowCounterMapper);
+    }
+
+    @Test
+    void testIncrementSpreadsAcrossSlots() {
+        when(rowCounterMapper.updateRowCount(eq(RowCounterService.ORDERS), anyInt(), eq(1L))).thenReturn(1);
+
+        for (int i = 0; i < 200; i++) {
+            rowCounterService.increment(RowCounterService.ORDERS, 1);
+        }
+
+        ArgumentCaptor<Integer> slots = ArgumentCaptor.forClass(Integer.class);
+        verify(rowCounterMapper, times(200)).updateRowCount(eq(RowCounterService.ORDERS), slots.capture(), eq(1L));
+        assertTrue(slots.getAllValues().stream().allMatch(slot -> slot >= 0 && slot < RowCounterService.SLOTS));
+        assertTrue(slots.getAllValues().stream().distinct().count() > 1);
+    }
+
+    @Test
+    void testIncrementFallsBackToFirstSlot() {
+        // 只有0号槽位存在时，其他槽位更新不到任何行
+        when(rowCounterMapper.updateRowCount(eq(RowCounterService.ORDERS), anyInt(), eq(1L)))
+                .thenAnswer(invocation -> invocation.<Integer>getArgument(1) == 0 ? 1 : 0);
+
+        for (int i = 0; i < 20; i++) {
+            rowCounterService.increment(RowCounterService.ORDERS, 1);
+        }
+
+        verify(rowCounterMapper, times(20)).updateRowCount(RowCounterService.ORDERS, 0, 1L);
+    }
+
+    @Test
+    void testReconcileExistingCounter() {
+        when(rowCounterMapper.reconcileRowCount(RowCounterService.ORDERS)).thenReturn(RowCounterService.SLOTS);
+        when(rowCounterMapper.selectRowCount(RowCounterService.ORDERS)).thenReturn(10L);
+
+        assertEquals(10L, rowCounterService.reconcile(RowCounterService.ORDERS));
+        verify(rowCounterMapper, never()).insertSlot(anyString(), anyInt());
+    }
+
+    @Test
+    void testReconcileCreatesMissingCounter() {
+        when(rowCounterMapper.reconcileRowCount(RowCounterService.ORDERS)).thenReturn(0, RowCounterService.SLOTS);
+        when(rowCounterMapper.selectSlots(RowCounterService.ORDERS)).thenReturn(List.of());
+        when(rowCounterMapper.selectRowCount(RowCounterService.ORDERS)).thenReturn(5L);
+
+        assertEquals(5L, rowCounterService.reconcile(RowCounterService.ORDERS));
+        verify(rowCounterMapper, times(RowCounterService.SLOTS)).insertSlot(eq(RowCounterService.ORDERS), anyInt());
+        verify(rowCounterMapper, times(2)).reconcileRowCount(RowCounterService.ORDERS);
+    }
+
+    @Test
+    void testReconcileWhenCounterCreatedConcurrently() {
+        when(rowCounterMapper.reconcileRowCount(RowCounterService.ORDERS)).thenReturn(1, RowCounterService.SLOTS);
+        when(rowCounterMapper.selectSlots(RowCounterService.ORDERS)).thenReturn(List.of(0));
+        when(rowCounterMapper.insertSlot(RowCounterService.ORDERS, 1)).thenThrow(new DuplicateKeyException("duplicate"));
+        when(rowCounterMapper.selectRowCount(RowCounterService.ORDERS)).thenReturn(5L);
+
+        assertEquals(5L, rowCounterService.reconcile(RowCounterService.ORDERS));
+        verify(rowCounterMapper, never()).insertSlot(RowCounterService.ORDERS, 0);
+        verify(rowCounterMapper, times(RowCounterService.SLOTS - 1)).insertSlot(eq(RowCounterService.ORDERS), anyInt());
+        verify(rowCounterMapper, times(2)).reconcileRowCount(RowCounterService.ORDERS);
+    }
+
+    @Test
+    void testUnknownTableIsRejected() {
+        // 表名会拼接到SQL中，只允许预定义的表
+        assertThrows(IllegalArgumentException.class, () -> rowCounterService.getCount("staff; DROP TABLE orders"));
+        assertThrows(IllegalArgumentException.class, () -> rowCounterService.increment("products", 1));
+        assertThrows(IllegalArgumentException.class, () -> rowCounterService.reconcile("users"));
+        verify(rowCounterMapper, never()).updateRowCount(anyString(), anyInt(), anyLong());
+    }
+}
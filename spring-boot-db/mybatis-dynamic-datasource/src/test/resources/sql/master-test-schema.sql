@@ -1,5 +1,10 @@
 -- 主数据库测试初始化脚本
 
+-- 每个测试前重新建表，保证数据一致
+DROP TABLE IF EXISTS orders;
+DROP TABLE IF EXISTS customers;
+DROP TABLE IF EXISTS row_counter;
+
 -- 创建客户表
 CREATE TABLE IF NOT EXISTS customers (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -31,12 +36,23 @@ CREATE TABLE IF NOT EXISTS orders (
     update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 );
 
+-- 创建行数计数器表
+CREATE TABLE IF NOT EXISTS row_counter (
+    table_name VARCHAR(64) NOT NULL,
+    slot INT NOT NULL,
+    row_count BIGINT NOT NULL DEFAULT 0,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (table_name, slot)
+);
+
 -- 创建索引
 CREATE INDEX IF NOT EXISTS idx_customers_code ON customers(customer_code);
 CREATE INDEX IF NOT EXISTS idx_customers_status ON customers(status);
+CREATE INDEX IF NOT EXISTS idx_customers_create_time_id ON customers(create_time, id);
 CREATE INDEX IF NOT EXISTS idx_orders_no ON orders(order_no);
 CREATE INDEX IF NOT EXISTS idx_orders_customer_id ON orders(customer_id);
 CREATE INDEX IF NOT EXISTS idx_orders_status ON orders(status);
+CREATE INDEX IF NOT EXISTS idx_orders_create_time_id ON orders(create_time, id);
 
 -- 插入测试数据
 INSERT INTO customers (customer_code, customer_name, email, phone, age, address, status, remark) VALUES
@@ -52,3 +68,9 @@ INSERT INTO orders (order_no, customer_id, customer_name, total_amount, status,
 ('TEST_ORD003', 3, '测试客户3', 799.00, 'PAID', '银行卡', '测试地址3', '测试订单'),
 ('TEST_ORD004', 4, '测试客户4', 2299.99, 'PENDING', NULL, '测试地址4', '测试订单'),
 ('TEST_ORD005', 5, '测试客户5', 1299.99, 'CANCELLED', NULL, '测试地址5', '测试订单');
+
+-- 初始化行数计数器：实际行数写入0号槽位，其余7个槽位为0
+INSERT INTO row_counter (table_name, slot, row_count) SELECT 'customers', 0, COUNT(*) FROM customers;
+INSERT INTO row_counter (table_name, slot, row_count) VALUES ('customers', 1, 0), ('customers', 2, 0), ('customers', 3, 0), ('customers', 4, 0), ('customers', 5, 0), ('customers', 6, 0), ('customers', 7, 0);
+INSERT INTO row_counter (table_name, slot, row_count) SELECT 'orders', 0, COUNT(*) FROM orders;
+INSERT INTO row_counter (table_name, slot, row_count) VALUES ('orders', 1, 0), ('orders', 2, 0), ('orders', 3, 0), ('orders', 4, 0), ('orders', 5, 0), ('orders', 6, 0), ('orders', 7, 0);
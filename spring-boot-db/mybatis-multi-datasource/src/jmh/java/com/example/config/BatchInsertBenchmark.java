@@ -0,0 +1,165 @@
+package com.example.config;
+
+import com.example.secondary.domain.Product;
+import com.example.secondary.mapper.ProductMapper;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.logging.nologging.NoLoggingImpl;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量插入性能测试
+ *
+ * foreachInsert 为 ProductMapper.batchInsert 拼接多行VALUES的方式，
+ * batchExecutorInsert 为 BatchInsertExecutor 使用BATCH执行器分批执行单行INSERT的方式
+ *
+ * 默认使用H2内存数据库，可以通过 -Dbenchmark.url / -Dbenchmark.username / -Dbenchmark.password 指向MySQL从库，
+ * 此时URL需要带上 rewriteBatchedStatements=true，且库中已有products表
+ *
+ * 运行方式：mvn -Pbenchmark -pl spring-boot-db/mybatis-multi-datasource -am verify -DskipTests
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchInsertBenchmark {
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    private SqlSessionFactory sqlSessionFactory;
+
+    private BatchInsertExecutor batchInsertExecutor;
+
+    private List<Product> products;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        String url = System.getProperty("benchmark.url",
+                "jdbc:h2:mem:batch_benchmark;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE");
+        PooledDataSource dataSource = new PooledDataSource(DriverManager.getDriver(url).getClass().getName(), url,
+                System.getProperty("benchmark.username", "sa"), System.getProperty("benchmark.password", ""));
+
+        Configuration configuration = new Configuration(
+                new Environment("benchmark", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        configuration.setUseGeneratedKeys(true);
+        configuration.setLogImpl(NoLoggingImpl.class);
+        configuration.getTypeAliasRegistry().registerAliases("com.example.secondary.domain");
+        try (InputStream mapperXml = resource("mapper/secondary/ProductMapper.xml")) {
+            new XMLMapperBuilder(mapperXml, configuration, "mapper/secondary/ProductMapper.xml",
+                    configuration.getSqlFragments()).parse();
+        }
+        sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+        batchInsertExecutor = new BatchInsertExecutor(sqlSessionFactory, Integer.getInteger("benchmark.chunk-size", 500));
+
+        if (url.startsWith("jdbc:h2:")) {
+            try (Connection connection = dataSource.getConnection();
+                 Reader schema = new InputStreamReader(resource("sql/secondary-test-schema.sql"), StandardCharsets.UTF_8)) {
+                ScriptRunner runner = new ScriptRunner(connection);
+                runner.setLogWriter(null);
+                runner.runScript(schema);
+            }
+        }
+    }
+
+    /**
+     * 每次插入前清空products表并重新生成数据
+     */
+    @Setup(Level.Invocation)
+    public void prepare() throws SQLException {
+        try (Connection connection = sqlSessionFactory.getConfiguration().getEnvironment().getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM products");
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        }
+        products = products(rows);
+    }
+
+    @Benchmark
+    public int foreachInsert() {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+            int result = sqlSession.getMapper(ProductMapper.class).batchInsert(products);
+            sqlSession.commit();
+            return result;
+        }
+    }
+
+    @Benchmark
+    public int batchExecutorInsert() {
+        return batchInsertExecutor.insert(ProductMapper.class, products, ProductMapper::insert);
+    }
+
+    private static List<Product> products(int size) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Product product = new Product();
+            product.setProductCode("BENCH" + i);
+            product.setProductName("性能测试商品" + i);
+            product.setDescription("性能测试商品描述" + i);
+            product.setPrice(BigDecimal.valueOf(100 + i % 900, 2));
+            product.setStock(i % 1000);
+            product.setCategory("BENCH");
+            product.setStatus("ACTIVE");
+            product.setCreateTime(now);
+            product.setUpdateTime(now);
+            products.add(product);
+        }
+        return products;
+    }
+
+    private static InputStream resource(String name) throws IOException {
+        InputStream stream = BatchInsertBenchmark.class.getClassLoader().getResourceAsStream(name);
+        if (stream == null) {
+            throw new IOException("缺少资源文件: " + name);
+        }
+        return stream;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BatchInsertBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -41,11 +41,15 @@ public class PrimaryDataSourceConfig {
      */
     @Primary
     @Bean(name = "primarySqlSessionFactory")
-    public SqlSessionFactory primarySqlSessionFactory(@Qualifier("primaryDataSource") DataSource dataSource) 
+    public SqlSessionFactory primarySqlSessionFactory(@Qualifier("primaryDataSource") DataSource dataSource,
+                                                SqlLogInterceptor sqlLogInterceptor) 
             throws Exception {
         SqlSessionFactoryBean bean = new SqlSessionFactoryBean();
         bean.setDataSource(dataSource);
         
+        // 输出慢SQL和抽样SQL日志
+        bean.setPlugins(sqlLogInterceptor);
+        
         // 设置Mapper XML文件位置
         bean.setMapperLocations(new PathMatchingResourcePatternResolver()
                 .getResources("classpath:mapper/primary/*.xml"));
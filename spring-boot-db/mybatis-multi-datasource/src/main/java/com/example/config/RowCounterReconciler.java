@@ -0,0 +1,77 @@
+package com.example.config;
+
+import com.example.secondary.service.RowCounterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 行数计数器校准器
+ *
+ * 计数器与业务数据在同一事务中维护，正常情况下保持准确；
+ * 直接在数据库中增删数据等情况会导致偏差，因此启动后立即校准一次，之后按固定间隔用实际行数覆盖计数
+ */
+@Component
+public class RowCounterReconciler implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RowCounterReconciler.class);
+
+    private final RowCounterService rowCounterService;
+
+    private final boolean enabled;
+
+    private final long interval;
+
+    private ScheduledExecutorService scheduler;
+
+    public RowCounterReconciler(RowCounterService rowCounterService,
+                                @Value("${row-counter.reconcile-enabled:true}") boolean enabled,
+                                @Value("${row-counter.reconcile-interval:3600000}") long interval) {
+        this.rowCounterService = rowCounterService;
+        this.enabled = enabled;
+        this.interval = interval;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            logger.info("行数计数器定期校准未开启");
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "row-counter-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::reconcileAll, 0, interval, TimeUnit.MILLISECONDS);
+        logger.info("行数计数器定期校准已开启，校准间隔: {}ms", interval);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 校准所有计数器，单张表失败不影响其他表
+     */
+    public void reconcileAll() {
+        for (String tableName : RowCounterService.TABLES) {
+            try {
+                Long count = rowCounterService.reconcile(tableName);
+                logger.debug("计数器已校准: {}, 行数: {}", tableName, count);
+            } catch (Exception e) {
+                logger.error("计数器校准失败: {}, 错误: {}", tableName, e.getMessage());
+            }
+        }
+    }
+}
@@ -38,11 +38,15 @@ public class SecondaryDataSourceConfig {
      * 从数据源SqlSessionFactory
      */
     @Bean(name = "secondarySqlSessionFactory")
-    public SqlSessionFactory secondarySqlSessionFactory(@Qualifier("secondaryDataSource") DataSource dataSource) 
+    public SqlSessionFactory secondarySqlSessionFactory(@Qualifier("secondaryDataSource") DataSource dataSource,
+                                                  SqlLogInterceptor sqlLogInterceptor) 
             throws Exception {
         SqlSessionFactoryBean bean = new SqlSessionFactoryBean();
         bean.setDataSource(dataSource);
         
+        // 输出慢SQL和抽样SQL日志
+        bean.setPlugins(sqlLogInterceptor);
+        
         // 设置Mapper XML文件位置
         bean.setMapperLocations(new PathMatchingResourcePatternResolver()
                 .getResources("classpath:mapper/secondary/*.xml"));
@@ -0,0 +1,75 @@
+package com.example.config;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 相同key的并发查询合并
+ *
+ * 同一key同时只执行一次loader：第一个调用方执行查询，查询期间到达的其他调用方等待并共享同一结果（包括异常）。
+ * 查询结束后立即移除，不缓存结果，之后的调用重新查询。
+ * 调用方处于读写事务中时直接执行loader，不与其他调用方合并，保证能读到本事务中未提交的修改
+ */
+public class SingleFlight<K, V> {
+
+    // loader中不能再以相同key调用同一个SingleFlight，否则会等待自身的结果
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder shared = new LongAdder();
+
+    public V execute(K key, Function<K, V> loader) {
+        if (!canShare()) {
+            return loader.apply(key);
+        }
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            shared.increment();
+            return join(existing);
+        }
+        try {
+            V value = loader.apply(key);
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 共享其他调用方查询结果的次数，即节省的查询次数
+     */
+    public long getSharedCount() {
+        return shared.sum();
+    }
+
+    private static boolean canShare() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
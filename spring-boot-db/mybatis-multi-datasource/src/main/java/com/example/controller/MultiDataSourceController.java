@@ -1,5 +1,7 @@
 package com.example.controller;
 
+import com.example.common.StatusCount;
+import com.example.config.ParallelQueryExecutor;
 import com.example.primary.domain.User;
 import com.example.primary.service.UserService;
 import com.example.secondary.domain.Product;
@@ -11,8 +13,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 多数据源演示控制器
@@ -28,50 +32,65 @@ public class MultiDataSourceController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ParallelQueryExecutor parallelQueryExecutor;
+
     /**
      * 获取系统概览信息
-     * 同时从主数据源和从数据源获取数据
+     * 同时从主数据源和从数据源获取数据，两个数据源的统计并行执行
      */
     @GetMapping("/overview")
     public ResponseEntity<Map<String, Object>> getSystemOverview() {
         Map<String, Object> overview = new HashMap<>();
         
-        // 从主数据源获取用户统计信息
-        Map<String, Object> userStats = new HashMap<>();
-        userStats.put("totalUsers", userService.getTotalCount());
-        userStats.put("activeUsers", userService.getCountByStatus("ACTIVE"));
-        userStats.put("inactiveUsers", userService.getCountByStatus("INACTIVE"));
+        // 从主数据源获取用户统计信息，按状态分组统计一次，总数和各状态数量都从分组结果中得到
+        CompletableFuture<Map<String, Object>> userStatsFuture = parallelQueryExecutor.submit(() -> {
+            Map<String, Integer> userStatusCounts = userService.getCountGroupByStatus();
+            Map<String, Object> userStats = new HashMap<>();
+            userStats.put("totalUsers", StatusCount.total(userStatusCounts));
+            userStats.put("activeUsers", userStatusCounts.getOrDefault("ACTIVE", 0));
+            userStats.put("inactiveUsers", userStatusCounts.getOrDefault("INACTIVE", 0));
+            return userStats;
+        });
         
         // 从从数据源获取产品统计信息
-        Map<String, Object> productStats = new HashMap<>();
-        productStats.put("totalProducts", productService.getTotalCount());
-        productStats.put("activeProducts", productService.getCountByStatus("ACTIVE"));
-        productStats.put("inactiveProducts", productService.getCountByStatus("INACTIVE"));
+        CompletableFuture<Map<String, Object>> productStatsFuture = parallelQueryExecutor.submit(() -> {
+            Map<String, Integer> productStatusCounts = productService.getCountGroupByStatus();
+            Map<String, Object> productStats = new HashMap<>();
+            productStats.put("totalProducts", StatusCount.total(productStatusCounts));
+            productStats.put("activeProducts", productStatusCounts.getOrDefault("ACTIVE", 0));
+            productStats.put("inactiveProducts", productStatusCounts.getOrDefault("INACTIVE", 0));
+            return productStats;
+        });
         
-        overview.put("userStatistics", userStats);
-        overview.put("productStatistics", productStats);
-        overview.put("message", "多数据源统计信息获取成功");
+        Map<String, String> errors = new LinkedHashMap<>();
+        overview.put("userStatistics", parallelQueryExecutor.join("userStatistics", userStatsFuture, errors));
+        overview.put("productStatistics", parallelQueryExecutor.join("productStatistics", productStatsFuture, errors));
+        putPartialResult(overview, errors);
+        overview.put("message", errors.isEmpty() ? "多数据源统计信息获取成功" : "部分数据源统计信息获取失败");
         
         return ResponseEntity.ok(overview);
     }
 
     /**
      * 获取最新数据
-     * 从两个数据源分别获取最新的用户和产品信息
+     * 从两个数据源并行获取最新的用户和产品信息
      */
     @GetMapping("/latest")
     public ResponseEntity<Map<String, Object>> getLatestData() {
         Map<String, Object> latestData = new HashMap<>();
         
         // 从主数据源获取最新用户（前5个）
-        List<User> latestUsers = userService.getUsersByPage(1, 5);
+        CompletableFuture<List<User>> latestUsers = parallelQueryExecutor.submit(() -> userService.getUsersByPage(1, 5));
         
         // 从从数据源获取最新产品（前5个）
-        List<Product> latestProducts = productService.getProductsByPage(1, 5);
+        CompletableFuture<List<Product>> latestProducts = parallelQueryExecutor.submit(() -> productService.getProductsByPage(1, 5));
         
-        latestData.put("latestUsers", latestUsers);
-        latestData.put("latestProducts", latestProducts);
-        latestData.put("message", "最新数据获取成功");
+        Map<String, String> errors = new LinkedHashMap<>();
+        latestData.put("latestUsers", parallelQueryExecutor.join("latestUsers", latestUsers, errors));
+        latestData.put("latestProducts", parallelQueryExecutor.join("latestProducts", latestProducts, errors));
+        putPartialResult(latestData, errors);
+        latestData.put("message", errors.isEmpty() ? "最新数据获取成功" : "部分最新数据获取失败");
         
         return ResponseEntity.ok(latestData);
     }
@@ -148,4 +167,14 @@ public class MultiDataSourceController {
         
         return ResponseEntity.ok(config);
     }
+
+    /**
+     * 记录并行查询中失败的分支，失败分支的结果为null
+     */
+    private void putPartialResult(Map<String, Object> result, Map<String, String> errors) {
+        result.put("partial", !errors.isEmpty());
+        if (!errors.isEmpty()) {
+            result.put("errors", errors);
+        }
+    }
 }
@@ -1,12 +1,14 @@
 package com.example.controller;
 
 import com.example.secondary.domain.Product;
+import com.example.secondary.domain.StockDelta;
 import com.example.secondary.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -130,6 +132,15 @@ public class ProductController {
         return ResponseEntity.ok(count);
     }
 
+    /**
+     * 按状态分组统计产品数
+     */
+    @GetMapping("/count/status")
+    public ResponseEntity<Map<String, Integer>> getCountGroupByStatus() {
+        Map<String, Integer> statusCounts = productService.getCountGroupByStatus();
+        return ResponseEntity.ok(statusCounts);
+    }
+
     /**
      * 根据状态统计产品数
      */
@@ -217,6 +228,54 @@ public class ProductController {
         }
     }
 
+    /**
+     * 增减库存
+     * 按产品编码执行 stock = stock + delta，库存不能减到0以下
+     */
+    @PutMapping("/code/{productCode}/stock")
+    public ResponseEntity<Map<String, Object>> adjustStock(@PathVariable String productCode, @RequestParam Integer delta) {
+        try {
+            int result = productService.adjustStock(productCode, delta);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", result > 0);
+            response.put("message", result > 0 ? "库存调整成功" : "产品不存在或库存不足");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * 批量增减库存
+     * 请求体为 [{"productCode": "P001", "delta": -2}, ...]，产品不存在或库存不足的编码在failed中返回
+     */
+    @PutMapping("/stock/batch")
+    public ResponseEntity<Map<String, Object>> batchAdjustStock(@RequestBody List<StockDelta> stockDeltas) {
+        try {
+            Map<String, Boolean> result = productService.batchAdjustStock(stockDeltas);
+            List<String> failed = new ArrayList<>();
+            result.forEach((productCode, updated) -> {
+                if (!updated) {
+                    failed.add(productCode);
+                }
+            });
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", failed.isEmpty());
+            response.put("message", "成功调整 " + (result.size() - failed.size()) + " 个产品的库存");
+            response.put("count", result.size() - failed.size());
+            response.put("failed", failed);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     /**
      * 批量创建产品
      */
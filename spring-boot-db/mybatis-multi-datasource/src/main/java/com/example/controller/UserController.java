@@ -102,6 +102,15 @@ public class UserController {
         return ResponseEntity.ok(count);
     }
 
+    /**
+     * 按状态分组统计用户数
+     */
+    @GetMapping("/count/status")
+    public ResponseEntity<Map<String, Integer>> getCountGroupByStatus() {
+        Map<String, Integer> statusCounts = userService.getCountGroupByStatus();
+        return ResponseEntity.ok(statusCounts);
+    }
+
     /**
      * 根据状态统计用户数
      */
@@ -1,5 +1,6 @@
 package com.example.primary.mapper;
 
+import com.example.common.StatusCount;
 import com.example.primary.domain.User;
 import org.apache.ibatis.annotations.Param;
 
@@ -50,6 +51,11 @@ public interface UserMapper {
      */
     int countByStatus(String status);
 
+    /**
+     * 按状态分组统计用户数
+     */
+    List<StatusCount> countGroupByStatus();
+
     /**
      * 插入用户
      */
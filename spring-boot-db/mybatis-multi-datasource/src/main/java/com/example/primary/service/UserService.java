@@ -1,5 +1,6 @@
 package com.example.primary.service;
 
+import com.example.common.StatusCount;
 import com.example.primary.domain.User;
 import com.example.primary.mapper.UserMapper;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,6 +9,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 用户服务类 - 主数据源
@@ -76,6 +78,15 @@ public class UserService {
         return userMapper.countByStatus(status);
     }
 
+    /**
+     * 按状态分组统计用户数
+     *
+     * @return 状态 -> 数量，所有状态的数量之和即为总数
+     */
+    public Map<String, Integer> getCountGroupByStatus() {
+        return StatusCount.toMap(userMapper.countGroupByStatus());
+    }
+
     /**
      * 创建用户
      */
@@ -0,0 +1,44 @@
+package com.example.secondary.domain;
+
+/**
+ * 库存增减量 - 从数据源
+ * 按产品编码对库存做增量调整，delta为正表示入库，为负表示出库
+ */
+public class StockDelta {
+
+    private String productCode;
+
+    private Integer delta;
+
+    public StockDelta() {
+    }
+
+    public StockDelta(String productCode, Integer delta) {
+        this.productCode = productCode;
+        this.delta = delta;
+    }
+
+    public String getProductCode() {
+        return productCode;
+    }
+
+    public void setProductCode(String productCode) {
+        this.productCode = productCode;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Integer delta) {
+        this.delta = delta;
+    }
+
+    @Override
+    public String toString() {
+        return "StockDelta{" +
+                "productCode='" + productCode + '\'' +
+                ", delta=" + delta +
+                '}';
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.secondary.mapper;
 
+import com.example.common.StatusCount;
 import com.example.secondary.domain.Product;
+import com.example.secondary.domain.StockDelta;
 import org.apache.ibatis.annotations.Param;
 
 import java.math.BigDecimal;
@@ -66,6 +68,11 @@ public interface ProductMapper {
      */
     int countByStatus(String status);
 
+    /**
+     * 按状态分组统计产品数
+     */
+    List<StatusCount> countGroupByStatus();
+
     /**
      * 插入产品
      */
@@ -105,4 +112,12 @@ public interface ProductMapper {
      * 更新库存
      */
     int updateStock(@Param("id") Long id, @Param("stock") Integer stock);
+
+    /**
+     * 按产品编码增减库存
+     * 调整后库存小于0时不更新
+     *
+     * @return 更新的行数，产品不存在或库存不足时为0
+     */
+    int addStockByCode(StockDelta stockDelta);
 }
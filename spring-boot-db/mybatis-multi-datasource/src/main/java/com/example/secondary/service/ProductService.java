@@ -1,14 +1,23 @@
 package com.example.secondary.service;
 
+import com.example.common.StatusCount;
+import com.example.config.BatchInsertExecutor;
+import com.example.config.SingleFlight;
 import com.example.secondary.domain.Product;
+import com.example.secondary.domain.StockDelta;
 import com.example.secondary.mapper.ProductMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * 产品服务类 - 从数据源
@@ -20,18 +29,39 @@ public class ProductService {
     @Autowired
     private ProductMapper productMapper;
 
+    @Autowired
+    private RowCounterService rowCounterService;
+
+    @Autowired
+    private BatchInsertExecutor batchInsertExecutor;
+
+    @Autowired
+    private StockWriteBehindBuffer stockWriteBehindBuffer;
+
+    /**
+     * 相同ID、相同编码的并发查询合并为一次数据库查询
+     */
+    private final SingleFlight<Long, Product> productByIdFlight = new SingleFlight<>();
+
+    private final SingleFlight<String, Product> productByCodeFlight = new SingleFlight<>();
+
     /**
      * 根据ID查询产品
+     * 不开启事务，等待合并结果的调用方不占用连接；处于读写事务中时不合并。调用方不应修改返回的对象
      */
+    @Transactional(transactionManager = "secondaryTransactionManager", readOnly = true,
+            propagation = Propagation.SUPPORTS)
     public Product getProductById(Long id) {
-        return productMapper.selectById(id);
+        return productByIdFlight.execute(id, productMapper::selectById);
     }
 
     /**
      * 根据产品编码查询产品
      */
+    @Transactional(transactionManager = "secondaryTransactionManager", readOnly = true,
+            propagation = Propagation.SUPPORTS)
     public Product getProductByCode(String productCode) {
-        return productMapper.selectByProductCode(productCode);
+        return productByCodeFlight.execute(productCode, productMapper::selectByProductCode);
     }
 
     /**
@@ -79,9 +109,11 @@ public class ProductService {
 
     /**
      * 统计产品总数
+     * 读取计数器，计数器不存在时回退到COUNT(*)
      */
     public int getTotalCount() {
-        return productMapper.countAll();
+        Long count = rowCounterService.getCount(RowCounterService.PRODUCTS);
+        return count != null ? count.intValue() : productMapper.countAll();
     }
 
     /**
@@ -98,6 +130,15 @@ public class ProductService {
         return productMapper.countByStatus(status);
     }
 
+    /**
+     * 按状态分组统计产品数
+     *
+     * @return 状态 -> 数量，所有状态的数量之和即为总数
+     */
+    public Map<String, Integer> getCountGroupByStatus() {
+        return StatusCount.toMap(productMapper.countGroupByStatus());
+    }
+
     /**
      * 创建产品
      */
@@ -122,7 +163,9 @@ public class ProductService {
         product.setCreateTime(LocalDateTime.now());
         product.setUpdateTime(LocalDateTime.now());
         
-        return productMapper.insert(product);
+        int rows = productMapper.insert(product);
+        rowCounterService.increment(RowCounterService.PRODUCTS, rows);
+        return rows;
     }
 
     /**
@@ -144,7 +187,9 @@ public class ProductService {
         if (id == null) {
             throw new IllegalArgumentException("产品ID不能为空");
         }
-        return productMapper.deleteById(id);
+        int rows = productMapper.deleteById(id);
+        rowCounterService.increment(RowCounterService.PRODUCTS, -rows);
+        return rows;
     }
 
     /**
@@ -160,8 +205,66 @@ public class ProductService {
         return productMapper.updateStock(id, stock);
     }
 
+    /**
+     * 增减单个产品的库存
+     * 开启库存写缓冲时只累加到缓冲，由StockWriteBehindBuffer合并后批量落库，此时不校验产品是否存在和库存是否充足，返回1
+     *
+     * @return 更新的行数，产品不存在或库存不足时为0
+     */
+    public int adjustStock(String productCode, Integer delta) {
+        if (productCode == null || delta == null) {
+            throw new IllegalArgumentException("产品编码和库存增减量不能为空");
+        }
+        if (stockWriteBehindBuffer.isEnabled()) {
+            stockWriteBehindBuffer.add(productCode, delta);
+            return 1;
+        }
+        return productMapper.addStockByCode(new StockDelta(productCode, delta));
+    }
+
+    /**
+     * 批量增减库存
+     * 每个产品执行一次 stock = stock + delta 的原子更新，不需要先查询再写回，并发调整不会互相覆盖；
+     * 调整后库存小于0或产品不存在的不更新，其余照常更新；开启库存写缓冲时只累加到缓冲，全部返回true
+     *
+     * @param stockDeltas 产品编码及库存增减量，同一产品出现多次时合并为一次调整
+     * @return 产品编码 -> 是否更新成功，按产品编码排序
+     */
+    public Map<String, Boolean> batchAdjustStock(List<StockDelta> stockDeltas) {
+        if (stockDeltas == null || stockDeltas.isEmpty()) {
+            throw new IllegalArgumentException("库存调整列表不能为空");
+        }
+
+        // 按产品编码排序后更新，并发的批量调整以相同顺序加行锁，避免死锁
+        Map<String, Integer> merged = new TreeMap<>();
+        for (StockDelta stockDelta : stockDeltas) {
+            if (stockDelta.getProductCode() == null || stockDelta.getDelta() == null) {
+                throw new IllegalArgumentException("产品编码和库存增减量不能为空");
+            }
+            merged.merge(stockDelta.getProductCode(), stockDelta.getDelta(), Math::addExact);
+        }
+        if (stockWriteBehindBuffer.isEnabled()) {
+            Map<String, Boolean> result = new LinkedHashMap<>();
+            merged.forEach((productCode, delta) -> {
+                stockWriteBehindBuffer.add(productCode, delta);
+                result.put(productCode, true);
+            });
+            return result;
+        }
+        List<StockDelta> updates = new ArrayList<>(merged.size());
+        merged.forEach((productCode, delta) -> updates.add(new StockDelta(productCode, delta)));
+
+        int[] counts = batchInsertExecutor.update(ProductMapper.class, updates, ProductMapper::addStockByCode);
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        for (int i = 0; i < updates.size(); i++) {
+            result.put(updates.get(i).getProductCode(), counts[i] > 0);
+        }
+        return result;
+    }
+
     /**
      * 批量创建产品
+     * 使用BATCH执行器分批执行单行INSERT，避免拼接过长的SQL
      */
     public int batchCreateProducts(List<Product> products) {
         if (products == null || products.isEmpty()) {
@@ -180,7 +283,9 @@ public class ProductService {
             product.setUpdateTime(now);
         }
         
-        return productMapper.batchInsert(products);
+        int rows = batchInsertExecutor.insert(ProductMapper.class, products, ProductMapper::insert);
+        rowCounterService.increment(RowCounterService.PRODUCTS, rows);
+        return rows;
     }
 
     /**
@@ -190,6 +295,8 @@ public class ProductService {
         if (ids == null || ids.isEmpty()) {
             throw new IllegalArgumentException("产品ID列表不能为空");
         }
-        return productMapper.batchDelete(ids);
+        int rows = productMapper.batchDelete(ids);
+        rowCounterService.increment(RowCounterService.PRODUCTS, -rows);
+        return rows;
     }
 }
@@ -0,0 +1,179 @@
+package com.example.secondary.service;
+
+import com.example.config.BatchInsertExecutor;
+import com.example.secondary.domain.StockDelta;
+import com.example.secondary.mapper.ProductMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 库存写缓冲（write-behind） - 从数据源
+ *
+ * 秒杀等场景下同一产品的库存每秒被增减成千上万次，每次单独执行UPDATE会在热点行上产生大量行锁等待。
+ * 开启后库存增减量先累加到内存缓冲，同一产品的多次增减合并为一个净增减量，按固定间隔或待写数量达到阈值时
+ * 批量写入数据库，一次刷新中每个产品只执行一条 stock = stock + delta 的UPDATE（ProductMapper.addStockByCode）。
+ * 写入的是增量，多个实例分别缓冲时也不会互相覆盖。
+ *
+ * 持久性说明：
+ * 1. 增减量在写入缓冲后即返回成功，此时尚未落库；进程崩溃或被强制终止时，最近一个刷新间隔内的增减会丢失
+ * 2. 正常关闭时会在销毁阶段同步刷新一次剩余的增减量
+ * 3. 刷新失败的增减量累加回缓冲等待下次刷新，期间新写入的增减量不会丢失
+ * 4. 库存校验按合并后的净增减量进行：调整后库存小于0或产品不存在时，该产品这一次刷新的净增减量整体丢弃并记录日志
+ * 5. 刷新前从数据库读取到的是旧库存
+ */
+@Component
+public class StockWriteBehindBuffer implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockWriteBehindBuffer.class);
+
+    /**
+     * 产品编码 -> 待写入的库存净增减量
+     * ConcurrentHashMap按桶加锁，不同产品的写入互不阻塞
+     */
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private final BatchInsertExecutor batchInsertExecutor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+
+    private final long flushInterval;
+
+    private final int maxPending;
+
+    private ScheduledExecutorService scheduler;
+
+    public StockWriteBehindBuffer(BatchInsertExecutor batchInsertExecutor,
+                                  @Qualifier("secondaryTransactionManager") PlatformTransactionManager transactionManager,
+                                  @Value("${stock-write-behind.enabled:false}") boolean enabled,
+                                  @Value("${stock-write-behind.flush-interval:200}") long flushInterval,
+                                  @Value("${stock-write-behind.max-pending:1000}") int maxPending) {
+        this.batchInsertExecutor = batchInsertExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.flushInterval = flushInterval;
+        this.maxPending = maxPending;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        logger.info("库存写缓冲已开启，刷新间隔: {}ms，待写阈值: {}", flushInterval, maxPending);
+    }
+
+    /**
+     * 关闭时停止定时刷新，并同步写入剩余的更新
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+        if (!pending.isEmpty()) {
+            logger.error("关闭时库存写入失败，丢失 {} 个产品的库存增减: {}", pending.size(), pending);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 累加库存增减量，与同一产品未刷新的增减量合并
+     */
+    public void add(String productCode, int delta) {
+        pending.merge(productCode, (long) delta, Long::sum);
+        if (pending.size() >= maxPending && flushScheduled.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                // 正在关闭，剩余的更新由destroy同步写入
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * 把缓冲中的更新批量写入数据库
+     * 由单个线程或关闭流程调用，刷新之间串行执行；按产品编码顺序更新，与批量增减库存以相同顺序加行锁
+     *
+     * @return 更新成功的产品数
+     */
+    public synchronized int flush() {
+        flushScheduled.set(false);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        // remove取走的是合并到当前时刻的增减量，之后写入的增减量进入新的条目，不会丢失
+        Map<String, Long> deltas = new TreeMap<>();
+        for (String productCode : pending.keySet()) {
+            Long delta = pending.remove(productCode);
+            if (delta != null && delta != 0) {
+                deltas.put(productCode, delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        try {
+            List<StockDelta> updates = new ArrayList<>(deltas.size());
+            deltas.forEach((productCode, delta) -> updates.add(new StockDelta(productCode, Math.toIntExact(delta))));
+            int[] counts = transactionTemplate.execute(status ->
+                    batchInsertExecutor.update(ProductMapper.class, updates, ProductMapper::addStockByCode));
+            int updated = 0;
+            for (int i = 0; i < updates.size(); i++) {
+                if (counts != null && counts[i] > 0) {
+                    updated++;
+                } else {
+                    logger.warn("产品不存在或库存不足，丢弃库存增减: {}", updates.get(i));
+                }
+            }
+            logger.debug("库存写缓冲已刷新，产品数: {}", updated);
+            return updated;
+        } catch (RuntimeException e) {
+            // 累加回缓冲，与期间新写入的增减量合并
+            deltas.forEach((productCode, delta) -> pending.merge(productCode, delta, Long::sum));
+            throw e;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("库存写缓冲刷新失败，待下次重试，错误: {}", e.getMessage());
+        }
+    }
+}
@@ -8,6 +8,7 @@ USE secondary_db;
 
 -- 删除已存在的表
 DROP TABLE IF EXISTS products;
+DROP TABLE IF EXISTS row_counter;
 
 -- 创建产品表
 CREATE TABLE products (
@@ -23,6 +24,15 @@ CREATE TABLE products (
     update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='产品表';
 
+-- 创建行数计数器表
+CREATE TABLE row_counter (
+    table_name VARCHAR(64) NOT NULL COMMENT '表名',
+    slot INT NOT NULL COMMENT '槽位，总数为各槽位之和',
+    row_count BIGINT NOT NULL DEFAULT 0 COMMENT '行数',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (table_name, slot)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='行数计数器表';
+
 -- 创建索引
 CREATE INDEX idx_products_code ON products(product_code);
 CREATE INDEX idx_products_name ON products(product_name);
@@ -46,6 +56,10 @@ INSERT INTO products (product_code, product_name, description, price, stock, cat
 ('P011', 'Nintendo Switch', '任天堂游戏机，娱乐必备', 2099.00, 70, '游戏机', 'ACTIVE', NOW(), NOW()),
 ('P012', 'PlayStation 5', '索尼游戏主机，游戏体验极佳', 3999.00, 15, '游戏机', 'ACTIVE', NOW(), NOW());
 
+-- 初始化行数计数器：实际行数写入0号槽位，其余7个槽位为0
+INSERT INTO row_counter (table_name, slot, row_count, update_time) SELECT 'products', 0, COUNT(*), NOW() FROM products;
+INSERT INTO row_counter (table_name, slot, row_count, update_time) VALUES ('products', 1, 0, NOW()), ('products', 2, 0, NOW()), ('products', 3, 0, NOW()), ('products', 4, 0, NOW()), ('products', 5, 0, NOW()), ('products', 6, 0, NOW()), ('products', 7, 0, NOW());
+
 -- 查看插入结果
 SELECT COUNT(*) as total_products FROM products;
 SELECT category, COUNT(*) as count FROM products GROUP BY category;
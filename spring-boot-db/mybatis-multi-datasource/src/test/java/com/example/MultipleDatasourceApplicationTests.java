@@ -1,18 +1,22 @@
 package com.example;
 
+import com.example.common.StatusCount;
 import com.example.primary.domain.User;
 import com.example.primary.service.UserService;
 import com.example.secondary.domain.Product;
+import com.example.secondary.domain.StockDelta;
 import com.example.secondary.service.ProductService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,10 +25,12 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 @SpringBootTest
 @ActiveProfiles("test")
-@Sql(scripts = {
-    "classpath:sql/primary-test-schema.sql",
-    "classpath:sql/secondary-test-schema.sql"
-})
+@Sql(scripts = "classpath:sql/primary-test-schema.sql",
+        config = @SqlConfig(dataSource = "primaryDataSource", transactionManager = "primaryTransactionManager",
+                encoding = "UTF-8"))
+@Sql(scripts = "classpath:sql/secondary-test-schema.sql",
+        config = @SqlConfig(dataSource = "secondaryDataSource", transactionManager = "secondaryTransactionManager",
+                encoding = "UTF-8"))
 class MultipleDatasourceApplicationTests {
 
     @Autowired
@@ -62,6 +68,11 @@ class MultipleDatasourceApplicationTests {
         
         int activeCount = userService.getCountByStatus("ACTIVE");
         assertTrue(activeCount >= 4);
+        
+        // 测试按状态分组统计，与逐个统计的结果一致
+        Map<String, Integer> statusCounts = userService.getCountGroupByStatus();
+        assertEquals(totalCount, StatusCount.total(statusCounts));
+        assertEquals(activeCount, statusCounts.get("ACTIVE"));
     }
 
     @Test
@@ -86,6 +97,11 @@ class MultipleDatasourceApplicationTests {
         
         int activeCount = productService.getCountByStatus("ACTIVE");
         assertTrue(activeCount >= 4);
+        
+        // 测试按状态分组统计，与逐个统计的结果一致
+        Map<String, Integer> statusCounts = productService.getCountGroupByStatus();
+        assertEquals(totalCount, StatusCount.total(statusCounts));
+        assertEquals(activeCount, statusCounts.get("ACTIVE"));
     }
 
     @Test
@@ -188,4 +204,28 @@ class MultipleDatasourceApplicationTests {
         Product deletedProduct = productService.getProductById(createdProduct.getId());
         assertNull(deletedProduct);
     }
+
+    @Test
+    @Transactional(transactionManager = "secondaryTransactionManager")
+    void testBatchAdjustStock() {
+        // TEST001库存10，TEST002库存20；同一产品的多次调整合并为一次
+        Map<String, Boolean> result = productService.batchAdjustStock(List.of(
+                new StockDelta("TEST001", -3),
+                new StockDelta("TEST001", -2),
+                new StockDelta("TEST002", -100),
+                new StockDelta("NOT_EXISTS", 1)));
+
+        assertEquals(3, result.size());
+        assertTrue(result.get("TEST001"));
+        // 库存不足和产品不存在的不更新
+        assertFalse(result.get("TEST002"));
+        assertFalse(result.get("NOT_EXISTS"));
+        assertEquals(5, productService.getProductByCode("TEST001").getStock());
+        assertEquals(20, productService.getProductByCode("TEST002").getStock());
+
+        // 单个产品增减库存同样不能减到0以下
+        assertEquals(1, productService.adjustStock("TEST001", -5));
+        assertEquals(0, productService.adjustStock("TEST001", -1));
+        assertEquals(0, productService.getProductByCode("TEST001").getStock());
+    }
 }
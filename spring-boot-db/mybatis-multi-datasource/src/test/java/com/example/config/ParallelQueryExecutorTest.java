@@ -0,0 +1,67 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ParallelQueryExecutor测试类
+ */
+class ParallelQueryExecutorTest {
+
+    @Test
+    void testTimeoutBranchReturnsNull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ParallelQueryExecutor executor = new ParallelQueryExecutor(2, 10, 100);
+        try {
+            CompletableFuture<String> slow = executor.submit(() -> await(release, "slow"));
+            CompletableFuture<String> fast = executor.submit(() -> "fast");
+
+            Map<String, String> errors = new HashMap<>();
+            assertNull(executor.join("slow", slow, errors));
+            assertEquals("fast", executor.join("fast", fast, errors));
+            assertTrue(errors.get("slow").contains("超时"));
+            assertFalse(errors.containsKey("fast"));
+        } finally {
+            release.countDown();
+            executor.destroy();
+        }
+    }
+
+    @Test
+    void testRejectedBranchDoesNotRunOnCaller() {
+        CountDownLatch release = new CountDownLatch(1);
+        ParallelQueryExecutor executor = new ParallelQueryExecutor(1, 1, 100);
+        try {
+            // 一个分支占住线程，一个分支占满队列
+            executor.submit(() -> await(release, "running"));
+            executor.submit(() -> await(release, "queued"));
+
+            // 第三个分支被拒绝，不在请求线程中执行，立即按失败分支返回
+            long start = System.nanoTime();
+            CompletableFuture<String> rejected = executor.submit(() -> await(release, "rejected"));
+            Map<String, String> errors = new HashMap<>();
+            assertNull(executor.join("rejected", rejected, errors));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+            assertTrue(errors.containsKey("rejected"));
+        } finally {
+            release.countDown();
+            executor.destroy();
+        }
+    }
+
+    private static String await(CountDownLatch latch, String value) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
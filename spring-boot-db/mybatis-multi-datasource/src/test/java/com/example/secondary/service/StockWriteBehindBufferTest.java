@@ -0,0 +1,166 @@
+package com.example.secondary.service;
+
+import com.example.config.BatchInsertExecutor;
+import com.example.secondary.domain.StockDelta;
+import com.example.secondary.mapper.ProductMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * StockWriteBehindBuffer测试类
+ */
+class StockWriteBehindBufferTest {
+
+    /**
+     * 模拟products表：产品编码 -> 库存
+     */
+    private final Map<String, Integer> stocks = new ConcurrentHashMap<>();
+
+    /**
+     * 每次刷新执行的增减量
+     */
+    private final List<List<StockDelta>> flushes = new CopyOnWriteArrayList<>();
+
+    /**
+     * 为true时模拟数据库写入失败
+     */
+    private final AtomicBoolean failing = new AtomicBoolean();
+
+    private final BatchInsertExecutor batchInsertExecutor = mock(BatchInsertExecutor.class);
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @BeforeEach
+    void setUp() {
+        stocks.put("P001", 100);
+        stocks.put("P002", 0);
+        // 与ProductMapper.addStockByCode相同：产品不存在或调整后库存小于0时不更新
+        when(batchInsertExecutor.update(eq(ProductMapper.class), anyList(), any())).thenAnswer(invocation -> {
+            if (failing.get()) {
+                throw new DataAccessResourceFailureException("数据库不可用");
+            }
+            List<StockDelta> updates = new ArrayList<>(invocation.getArgument(1));
+            flushes.add(updates);
+            int[] counts = new int[updates.size()];
+            for (int i = 0; i < updates.size(); i++) {
+                StockDelta update = updates.get(i);
+                Integer stock = stocks.get(update.getProductCode());
+                if (stock != null && stock + update.getDelta() >= 0) {
+                    stocks.put(update.getProductCode(), stock + update.getDelta());
+                    counts[i] = 1;
+                }
+            }
+            return counts;
+        });
+    }
+
+    private StockWriteBehindBuffer buffer(boolean enabled) {
+        return new StockWriteBehindBuffer(batchInsertExecutor, transactionManager, enabled, 60000, 100000);
+    }
+
+    @Test
+    void testConcurrentAddsAreMergedPerProduct() throws Exception {
+        StockWriteBehindBuffer buffer = buffer(false);
+        int threads = 8;
+        int addsPerThread = 1000;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < addsPerThread; j++) {
+                        buffer.add("P001", j % 2 == 0 ? -1 : 2);
+                        buffer.add("P002", 1);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, buffer.flush());
+
+        // 每个产品只执行一条UPDATE，增减量是所有线程的累加，按产品编码排序
+        assertEquals(1, flushes.size());
+        List<StockDelta> updates = flushes.get(0);
+        assertEquals("P001", updates.get(0).getProductCode());
+        assertEquals(threads * addsPerThread / 2, updates.get(0).getDelta());
+        assertEquals("P002", updates.get(1).getProductCode());
+        assertEquals(threads * addsPerThread, updates.get(1).getDelta());
+        assertEquals(100 + threads * addsPerThread / 2, stocks.get("P001"));
+        assertEquals(threads * addsPerThread, stocks.get("P002"));
+        assertEquals(0, buffer.flush());
+    }
+
+    @Test
+    void testFailedFlushIsRequeued() {
+        StockWriteBehindBuffer buffer = buffer(false);
+        buffer.add("P001", -10);
+
+        failing.set(true);
+        assertThrows(DataAccessResourceFailureException.class, buffer::flush);
+        assertEquals(100, stocks.get("P001"));
+
+        // 失败的增减量与期间新写入的增减量合并后重试
+        buffer.add("P001", -5);
+        failing.set(false);
+        assertEquals(1, buffer.flush());
+        assertEquals(-15, flushes.get(0).get(0).getDelta());
+        assertEquals(85, stocks.get("P001"));
+    }
+
+    @Test
+    void testRejectedDeltaIsDropped() {
+        StockWriteBehindBuffer buffer = buffer(false);
+        buffer.add("P001", -1);
+        buffer.add("P002", -1);
+        buffer.add("P404", 1);
+
+        // 库存不足和不存在的产品不更新，也不放回缓冲
+        assertEquals(1, buffer.flush());
+        assertEquals(99, stocks.get("P001"));
+        assertEquals(0, stocks.get("P002"));
+        assertEquals(0, buffer.flush());
+    }
+
+    @Test
+    void testDestroyFlushesPending() throws Exception {
+        StockWriteBehindBuffer buffer = buffer(true);
+        buffer.afterPropertiesSet();
+        buffer.add("P001", -3);
+        buffer.add("P001", -2);
+
+        // 刷新间隔未到，关闭时同步写入
+        assertTrue(flushes.isEmpty());
+        buffer.destroy();
+        assertEquals(95, stocks.get("P001"));
+    }
+}
@@ -1,5 +1,8 @@
 -- 主数据源测试数据库初始化脚本
 
+-- 每个测试前重新建表，保证数据一致
+DROP TABLE IF EXISTS users;
+
 -- 创建用户表
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
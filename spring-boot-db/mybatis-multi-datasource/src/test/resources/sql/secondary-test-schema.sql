@@ -1,5 +1,9 @@
 -- 从数据源测试数据库初始化脚本
 
+-- 每个测试前重新建表，保证数据一致
+DROP TABLE IF EXISTS products;
+DROP TABLE IF EXISTS row_counter;
+
 -- 创建产品表
 CREATE TABLE IF NOT EXISTS products (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -14,6 +18,15 @@ CREATE TABLE IF NOT EXISTS products (
     update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 );
 
+-- 创建行数计数器表
+CREATE TABLE IF NOT EXISTS row_counter (
+    table_name VARCHAR(64) NOT NULL,
+    slot INT NOT NULL,
+    row_count BIGINT NOT NULL DEFAULT 0,
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (table_name, slot)
+);
+
 -- 创建索引
 CREATE INDEX IF NOT EXISTS idx_products_code ON products(product_code);
 CREATE INDEX IF NOT EXISTS idx_products_name ON products(product_name);
@@ -27,3 +40,7 @@ INSERT INTO products (product_code, product_name, description, price, stock, cat
 ('TEST003', '测试产品3', '第三个测试产品', 299.99, 15, '其他分类', 'INACTIVE'),
 ('TEST004', '测试产品4', '第四个测试产品', 399.99, 5, '测试分类', 'ACTIVE'),
 ('TEST005', '测试产品5', '第五个测试产品', 499.99, 8, '其他分类', 'ACTIVE');
+
+-- 初始化行数计数器
+INSERT INTO row_counter (table_name, slot, row_count) SELECT 'products', 0, COUNT(*) FROM products;
+INSERT INTO row_counter (table_name, slot, row_count) VALUES ('products', 1, 0), ('products', 2, 0), ('products', 3, 0), ('products', 4, 0), ('products', 5, 0), ('products', 6, 0), ('products', 7, 0);
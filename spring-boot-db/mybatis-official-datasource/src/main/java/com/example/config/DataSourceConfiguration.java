@@ -70,9 +70,11 @@ public class DataSourceConfiguration {
         @Primary
         @Bean(name = "primarySqlSessionFactory")
         public SqlSessionFactory primarySqlSessionFactory(
-                @Qualifier("primaryDataSource") DataSource dataSource) throws Exception {
+                @Qualifier("primaryDataSource") DataSource dataSource,
+                SqlLogInterceptor sqlLogInterceptor) throws Exception {
             SqlSessionFactoryBean bean = new SqlSessionFactoryBean();
             bean.setDataSource(dataSource);
+            bean.setPlugins(sqlLogInterceptor);
             bean.setMapperLocations(
                     new PathMatchingResourcePatternResolver()
                             .getResources("classpath:mapper/primary/*.xml"));
@@ -140,9 +142,11 @@ public class DataSourceConfiguration {
         @Qualifier("second")
         @Bean(name = "secondarySqlSessionFactory", defaultCandidate = false)
         public SqlSessionFactory secondarySqlSessionFactory(
-                @Qualifier("second") DataSource dataSource) throws Exception {
+                @Qualifier("second") DataSource dataSource,
+                SqlLogInterceptor sqlLogInterceptor) throws Exception {
             SqlSessionFactoryBean bean = new SqlSessionFactoryBean();
             bean.setDataSource(dataSource);
+            bean.setPlugins(sqlLogInterceptor);
             bean.setMapperLocations(
                     new PathMatchingResourcePatternResolver()
                             .getResources("classpath:mapper/secondary/*.xml"));
@@ -0,0 +1,15 @@
+package com.example.config;
+
+/**
+ * 订单号生成器
+ *
+ * 生成的订单号在所有应用实例间唯一，创建订单时不需要再查询订单号是否已存在。
+ * 需要其他生成规则时声明一个@Primary的OrderNoGenerator Bean即可替换默认的Snowflake实现
+ */
+public interface OrderNoGenerator {
+
+    /**
+     * 生成下一个订单号
+     */
+    String nextOrderNo();
+}
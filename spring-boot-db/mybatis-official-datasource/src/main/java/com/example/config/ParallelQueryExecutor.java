@@ -0,0 +1,99 @@
+package com.example.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 跨数据源并行查询执行器
+ *
+ * 组合接口中访问不同数据源的查询相互独立，串行执行时响应时间是各分支之和。
+ * 通过有界线程池并发执行各分支，响应时间取决于最慢的分支；
+ * 每个分支单独超时，超时、失败或线程池已满被拒绝的分支记录到错误信息中，其余分支的结果照常返回
+ */
+@Component
+public class ParallelQueryExecutor implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelQueryExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+
+    private final long timeout;
+
+    public ParallelQueryExecutor(@Value("${parallel-query.pool-size:8}") int poolSize,
+                                 @Value("${parallel-query.queue-capacity:100}") int queueCapacity,
+                                 @Value("${parallel-query.timeout:3000}") long timeout) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        // 队列满时拒绝新分支，不由请求线程执行：请求线程执行时查询结束后才能附加超时，分支超时不再生效
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "parallel-query-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.timeout = timeout;
+    }
+
+    /**
+     * 提交一个查询分支，超过超时时间未完成时以TimeoutException结束，线程池已满时以RejectedExecutionException结束
+     * 超时只是不再等待结果，已经发出的SQL会继续执行到结束并归还连接
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        try {
+            return CompletableFuture.supplyAsync(query, executor).orTimeout(timeout, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 等待查询分支的结果
+     *
+     * @param branch 分支名称，用于错误信息
+     * @param future submit返回的结果
+     * @param errors 失败分支的错误信息，key为分支名称
+     * @return 查询结果，分支超时、失败或被拒绝时返回null
+     */
+    public <T> T join(String branch, CompletableFuture<T> future, Map<String, String> errors) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errors.put(branch, "查询被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException) {
+                logger.warn("并行查询分支超时: {}, 超时时间: {}ms", branch, timeout);
+                errors.put(branch, "查询超时（" + timeout + "ms）");
+            } else if (cause instanceof RejectedExecutionException) {
+                logger.warn("并行查询线程池已满，分支未执行: {}", branch);
+                errors.put(branch, "查询繁忙，请稍后重试");
+            } else {
+                logger.warn("并行查询分支失败: {}, 错误: {}", branch, cause.getMessage());
+                errors.put(branch, "查询失败: " + cause.getMessage());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
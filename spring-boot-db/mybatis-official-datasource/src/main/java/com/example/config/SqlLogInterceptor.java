@@ -0,0 +1,164 @@
+package com.example.config;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SQL日志插件
+ *
+ * 替代StdOutImpl逐条同步打印SQL、参数和结果的方式，只输出有诊断价值的语句：
+ * 1. 耗时不低于 sql-log.slow-threshold 的语句以WARN级别输出到 sql.slow
+ * 2. 其余语句按 sql-log.sample-rate 抽样，以INFO级别输出到 sql.sample
+ * 3. 两类日志合计每秒最多输出 sql-log.max-per-second 条，超出的丢弃，丢弃数量附在下一条日志中
+ *
+ * 日志为 key=value 格式，只包含SQL文本，不包含参数值；由logback-spring.xml中的异步appender输出，
+ * 不在执行SQL的线程上做控制台I/O
+ */
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "queryCursor",
+                args = {MappedStatement.class, Object.class, RowBounds.class})
+})
+public class SqlLogInterceptor implements Interceptor {
+
+    private static final Logger slowLogger = LoggerFactory.getLogger("sql.slow");
+
+    private static final Logger sampleLogger = LoggerFactory.getLogger("sql.sample");
+
+    /**
+     * 日志中SQL文本的最大长度，超出部分截断
+     */
+    private static final int MAX_SQL_LENGTH = 1000;
+
+    private final long slowThresholdNanos;
+
+    private final double sampleRate;
+
+    private final int maxPerSecond;
+
+    /**
+     * 当前限流窗口（秒）及窗口内已输出的条数
+     */
+    private final AtomicLong windowSecond = new AtomicLong();
+
+    private final AtomicInteger windowCount = new AtomicInteger();
+
+    /**
+     * 因限流丢弃、尚未报告的日志条数
+     */
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public SqlLogInterceptor(@Value("${sql-log.slow-threshold:500}") long slowThreshold,
+                             @Value("${sql-log.sample-rate:0.001}") double sampleRate,
+                             @Value("${sql-log.max-per-second:20}") int maxPerSecond) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThreshold);
+        this.sampleRate = sampleRate;
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        long startTime = System.nanoTime();
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - startTime;
+            if (elapsed >= slowThresholdNanos) {
+                log(slowLogger, invocation, result, elapsed);
+            } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                log(sampleLogger, invocation, result, elapsed);
+            }
+        }
+    }
+
+    private void log(Logger logger, Invocation invocation, Object result, long elapsed) {
+        boolean slow = logger == slowLogger;
+        if (slow ? !logger.isWarnEnabled() : !logger.isInfoEnabled()) {
+            return;
+        }
+        if (!tryAcquire()) {
+            suppressed.incrementAndGet();
+            return;
+        }
+        MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+        String message = "statement=" + statementName(mappedStatement.getId())
+                + " elapsedMs=" + TimeUnit.NANOSECONDS.toMillis(elapsed)
+                + " rows=" + rows(result)
+                + " suppressed=" + suppressed.getAndSet(0)
+                + " sql=\"" + sql(mappedStatement, invocation.getArgs()[1]) + '"';
+        if (slow) {
+            logger.warn(message);
+        } else {
+            logger.info(message);
+        }
+    }
+
+    /**
+     * 固定窗口限流，每秒最多maxPerSecond条
+     */
+    private boolean tryAcquire() {
+        long second = System.currentTimeMillis() / 1000;
+        long current = windowSecond.get();
+        if (second != current && windowSecond.compareAndSet(current, second)) {
+            windowCount.set(0);
+        }
+        return windowCount.incrementAndGet() <= maxPerSecond;
+    }
+
+    /**
+     * 查询返回结果条数，更新返回影响行数，游标查询等无法得知时返回-1
+     */
+    private static int rows(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Integer) {
+            return (Integer) result;
+        }
+        return -1;
+    }
+
+    /**
+     * 压缩空白后的SQL文本
+     */
+    private static String sql(MappedStatement mappedStatement, Object parameter) {
+        String sql;
+        try {
+            sql = mappedStatement.getBoundSql(parameter).getSql().replaceAll("\\s+", " ").trim();
+        } catch (RuntimeException e) {
+            return "<unavailable>";
+        }
+        return sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql;
+    }
+
+    /**
+     * com.example.mapper.CustomerMapper.selectById -> CustomerMapper.selectById
+     */
+    private static String statementName(String id) {
+        int methodIndex = id.lastIndexOf('.');
+        int typeIndex = methodIndex > 0 ? id.lastIndexOf('.', methodIndex - 1) : -1;
+        return typeIndex >= 0 ? id.substring(typeIndex + 1) : id;
+    }
+}
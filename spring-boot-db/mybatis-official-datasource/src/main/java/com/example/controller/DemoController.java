@@ -1,5 +1,7 @@
 package com.example.controller;
 
+import com.example.config.OrderNoGenerator;
+import com.example.config.ParallelQueryExecutor;
 import com.example.primary.entity.User;
 import com.example.primary.mapper.UserMapper;
 import com.example.secondary.entity.Order;
@@ -10,8 +12,10 @@ import org.springframework.web.bind.annotation.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 多数据源演示控制器
@@ -29,6 +33,12 @@ public class DemoController {
     @Autowired
     private OrderMapper orderMapper;
 
+    @Autowired
+    private ParallelQueryExecutor parallelQueryExecutor;
+
+    @Autowired
+    private OrderNoGenerator orderNoGenerator;
+
     /**
      * 系统概览信息
      * 展示两个数据源的基本统计信息
@@ -106,7 +116,7 @@ public class DemoController {
     @PostMapping("/orders")
     public Map<String, Object> createOrder(@RequestBody Order order) {
         // 生成订单号
-        order.setOrderNo("ORD" + System.currentTimeMillis());
+        order.setOrderNo(orderNoGenerator.nextOrderNo());
         order.setCreateTime(LocalDateTime.now());
         order.setUpdateTime(LocalDateTime.now());
         order.setStatus(1); // 待支付
@@ -128,24 +138,37 @@ public class DemoController {
 
     /**
      * 跨数据源查询演示
-     * 查询用户及其订单信息
+     * 查询用户及其订单信息，两个数据源的查询并行执行
      */
     @GetMapping("/user-orders/{userId}")
     public Map<String, Object> getUserWithOrders(@PathVariable Long userId) {
         Map<String, Object> result = new HashMap<>();
         
         // 从主数据源查询用户信息
-        User user = userMapper.selectById(userId);
+        CompletableFuture<User> userFuture = parallelQueryExecutor.submit(() -> userMapper.selectById(userId));
         
         // 从第二数据源查询用户的订单信息
-        List<Order> orders = orderMapper.selectByUserId(userId);
-        long orderCount = orderMapper.countByUserId(userId);
-        BigDecimal totalAmount = orderMapper.sumAmountByUserId(userId);
-        
-        result.put("user", user);
-        result.put("orders", orders);
-        result.put("orderCount", orderCount);
-        result.put("totalAmount", totalAmount != null ? totalAmount : BigDecimal.ZERO);
+        CompletableFuture<Map<String, Object>> ordersFuture = parallelQueryExecutor.submit(() -> {
+            Map<String, Object> orderInfo = new HashMap<>();
+            orderInfo.put("orders", orderMapper.selectByUserId(userId));
+            orderInfo.put("orderCount", orderMapper.countByUserId(userId));
+            BigDecimal totalAmount = orderMapper.sumAmountByUserId(userId);
+            orderInfo.put("totalAmount", totalAmount != null ? totalAmount : BigDecimal.ZERO);
+            return orderInfo;
+        });
+        
+        Map<String, String> errors = new LinkedHashMap<>();
+        result.put("user", parallelQueryExecutor.join("user", userFuture, errors));
+        Map<String, Object> orderInfo = parallelQueryExecutor.join("orders", ordersFuture, errors);
+        if (orderInfo != null) {
+            result.putAll(orderInfo);
+        }
+        
+        // 部分数据源查询失败时返回其余数据源的结果，并标明失败的分支
+        result.put("partial", !errors.isEmpty());
+        if (!errors.isEmpty()) {
+            result.put("errors", errors);
+        }
         
         return result;
     }
@@ -0,0 +1,165 @@
+package com.example.config;
+
+import com.example.staff.domain.Gender;
+import com.example.staff.domain.Staff;
+import com.example.staff.mapper.StaffMapper;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.logging.nologging.NoLoggingImpl;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量插入性能测试
+ *
+ * foreachInsert 为 StaffMapper.batchInsert 拼接多行VALUES的方式，
+ * batchExecutorInsert 为 BatchInsertExecutor 使用BATCH执行器分批执行单行INSERT的方式
+ *
+ * 默认使用H2内存数据库，可以通过 -Dbenchmark.url / -Dbenchmark.username / -Dbenchmark.password 指向MySQL，
+ * 此时URL需要带上 rewriteBatchedStatements=true，且库中已有staff表
+ *
+ * 运行方式：mvn -Pbenchmark -pl spring-boot-db/simple-mybatis -am verify -DskipTests
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchInsertBenchmark {
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    private SqlSessionFactory sqlSessionFactory;
+
+    private BatchInsertExecutor batchInsertExecutor;
+
+    private List<Staff> staffList;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        String url = System.getProperty("benchmark.url",
+                "jdbc:h2:mem:batch_benchmark;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE");
+        PooledDataSource dataSource = new PooledDataSource(DriverManager.getDriver(url).getClass().getName(), url,
+                System.getProperty("benchmark.username", "sa"), System.getProperty("benchmark.password", ""));
+
+        Configuration configuration = new Configuration(
+                new Environment("benchmark", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        configuration.setUseGeneratedKeys(true);
+        configuration.setLogImpl(NoLoggingImpl.class);
+        configuration.getTypeAliasRegistry().registerAliases("com.example.staff.domain");
+        configuration.getTypeHandlerRegistry().register("com.example.staff.handler");
+        try (InputStream mapperXml = resource("mapper/StaffMapper.xml")) {
+            new XMLMapperBuilder(mapperXml, configuration, "mapper/StaffMapper.xml",
+                    configuration.getSqlFragments()).parse();
+        }
+        sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+        batchInsertExecutor = new BatchInsertExecutor(sqlSessionFactory, Integer.getInteger("benchmark.chunk-size", 500));
+
+        if (url.startsWith("jdbc:h2:")) {
+            try (Connection connection = dataSource.getConnection();
+                 Reader schema = new InputStreamReader(resource("schema.sql"), StandardCharsets.UTF_8)) {
+                ScriptRunner runner = new ScriptRunner(connection);
+                runner.setLogWriter(null);
+                runner.runScript(schema);
+            }
+        }
+    }
+
+    /**
+     * 每次插入前清空staff表并重新生成数据
+     */
+    @Setup(Level.Invocation)
+    public void prepare() throws SQLException {
+        try (Connection connection = sqlSessionFactory.getConfiguration().getEnvironment().getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM staff");
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        }
+        staffList = staffList(rows);
+    }
+
+    @Benchmark
+    public int foreachInsert() {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+            int result = sqlSession.getMapper(StaffMapper.class).batchInsert(staffList);
+            sqlSession.commit();
+            return result;
+        }
+    }
+
+    @Benchmark
+    public int batchExecutorInsert() {
+        return batchInsertExecutor.insert(StaffMapper.class, staffList, StaffMapper::insert);
+    }
+
+    private static List<Staff> staffList(int size) {
+        Date now = new Date();
+        List<Staff> staffList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Staff staff = new Staff();
+            staff.setCode("BENCH" + i);
+            staff.setName("性能测试员工" + i);
+            staff.setAge(20 + i % 40);
+            staff.setGender(i % 2 == 0 ? Gender.MALE : Gender.WOMAN);
+            staff.setPhone("13800000000");
+            staff.setEmail("bench" + i + "@example.com");
+            staff.setCreateTime(now);
+            staff.setModifyTime(now);
+            staffList.add(staff);
+        }
+        return staffList;
+    }
+
+    private static InputStream resource(String name) throws IOException {
+        InputStream stream = BatchInsertBenchmark.class.getClassLoader().getResourceAsStream(name);
+        if (stream == null) {
+            throw new IOException("缺少资源文件: " + name);
+        }
+        return stream;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BatchInsertBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.config;
+
+import com.example.staff.domain.Staff;
+import com.example.staff.mapper.StaffMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 批量加载器配置类
+ * 并发的按ID查询员工在batch-loader.window毫秒内合并为一次IN查询
+ */
+@Configuration
+public class BatchLoaderConfig {
+
+    @Bean
+    public BatchLoader<Integer, Staff> staffByIdLoader(StaffMapper staffMapper,
+                                                       @Value("${batch-loader.window:2}") long window,
+                                                       @Value("${batch-loader.max-batch-size:100}") int maxBatchSize,
+                                                       @Value("${batch-loader.threads:4}") int threads,
+                                                       @Value("${batch-loader.timeout:5000}") long timeout) {
+        return new BatchLoader<>("staff", staffMapper::selectByPrimaryKeys, Staff::getId, window, maxBatchSize, threads,
+                timeout);
+    }
+}
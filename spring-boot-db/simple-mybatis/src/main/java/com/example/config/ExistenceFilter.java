@@ -0,0 +1,146 @@
+package com.example.config;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 编码存在性过滤器
+ *
+ * 新增数据前检查编码是否重复时先查布隆过滤器，过滤器判定不存在时不再查询数据库；
+ * 判定可能存在时再执行SQL。过滤器的数据来源：
+ * - rebuild：从数据库读取全部编码重新构建，同时清除已删除编码留下的误判
+ * - putAfterCommit：新增或修改编码的事务提交后加入过滤器
+ *
+ * 首次构建完成前mightContain总是返回true，所有查询照常执行SQL。
+ * 其他应用实例或直接改库写入的编码在下次重建前可能被误判为不存在，
+ * 因此只能用于有唯一约束兜底的写入前检查，由唯一约束保证编码不重复；
+ * 按编码查询和存在性检查不能使用过滤器，否则会把已存在的数据报告为不存在
+ */
+public class ExistenceFilter {
+
+    private final String name;
+
+    /**
+     * 读取全部编码，逐个交给传入的Consumer
+     */
+    private final Consumer<Consumer<String>> loader;
+
+    private final long expectedInsertions;
+
+    private final double fpp;
+
+    private volatile BloomFilter current;
+
+    /**
+     * 重建期间正在构建的过滤器，重建期间提交的编码同时加入新旧两个过滤器
+     */
+    private volatile BloomFilter building;
+
+    private volatile long loadedCount;
+
+    private final LongAdder negatives = new LongAdder();
+
+    private final LongAdder positives = new LongAdder();
+
+    public ExistenceFilter(String name, Consumer<Consumer<String>> loader, long expectedInsertions, double fpp) {
+        this.name = name;
+        this.loader = loader;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+    }
+
+    /**
+     * 判断编码是否可能存在，返回false时编码一定不存在；key为null时返回true，由调用方按原逻辑处理
+     */
+    public boolean mightContain(String key) {
+        BloomFilter filter = current;
+        if (filter != null && key != null && !filter.mightContain(key)) {
+            negatives.increment();
+            return false;
+        }
+        positives.increment();
+        return true;
+    }
+
+    /**
+     * 把编码加入过滤器，处于事务中时提交后再加入一次
+     * 立即加入保证同一事务中随后的查询能查到刚写入的编码，未提交的编码提前变为可能存在只影响性能不影响正确性；
+     * 提交后再加入才能保证重建时读不到的编码一定会进入新的过滤器
+     */
+    public void putAfterCommit(String key) {
+        if (key == null) {
+            return;
+        }
+        put(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(key);
+                }
+            });
+        }
+    }
+
+    /**
+     * 先加入正在构建的过滤器再加入当前过滤器，与rebuild的赋值顺序配合，重建期间加入的编码不会丢失
+     */
+    void put(String key) {
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(key);
+        }
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.put(key);
+        }
+    }
+
+    /**
+     * 从数据库读取全部编码重新构建过滤器
+     * 容量取配置值和上次编码数两倍中的较大者，数据增长后误判率不会持续升高
+     *
+     * @return 读取的编码个数
+     */
+    public synchronized long rebuild() {
+        BloomFilter next = new BloomFilter(Math.max(expectedInsertions, loadedCount * 2), fpp);
+        building = next;
+        try {
+            long[] count = new long[1];
+            loader.accept(key -> {
+                if (key != null) {
+                    next.put(key);
+                    count[0]++;
+                }
+            });
+            current = next;
+            loadedCount = count[0];
+            return count[0];
+        } finally {
+            building = null;
+        }
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getLoadedCount() {
+        return loadedCount;
+    }
+
+    public long getNegativeCount() {
+        return negatives.sum();
+    }
+
+    public long getPositiveCount() {
+        return positives.sum();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.config;
+
+import com.example.staff.mapper.StaffMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 编码存在性过滤器配置类
+ * 检查员工编码是否存在时先查布隆过滤器，判定不存在的直接返回，不查询数据库
+ */
+@Configuration
+public class ExistenceFilterConfig {
+
+    @Bean
+    public ExistenceFilter staffCodeFilter(StaffMapper staffMapper,
+                                           @Value("${existence-filter.expected-insertions:100000}") long expectedInsertions,
+                                           @Value("${existence-filter.fpp:0.01}") double fpp) {
+        return new ExistenceFilter("staffCode",
+                sink -> staffMapper.selectAllCodes(context -> sink.accept(context.getResultObject())),
+                expectedInsertions, fpp);
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 组提交器
+ *
+ * 把短时间内并发到达的单行写入合并为一次多行写入和一次事务提交：第一条记录到达后等待window毫秒，
+ * 或累计到maxGroupSize条时立即执行，各调用方阻塞到所在的组提交完成。
+ * 高并发插入时，提交次数（主库的fsync次数）从每行一次降为每组一次。
+ *
+ * 整组写入失败时（如其中一行违反唯一约束），整组回滚后逐行单独写入，
+ * 每个调用方只收到自己那一行的结果，其他行不受影响。
+ *
+ * groupWriter和singleWriter在提交器自己的线程中执行，需要自行开启事务；
+ * 调用方最多等待timeout毫秒，数据库卡住或提交线程被占满时不会无限期阻塞请求线程
+ *
+ * @param <T> 记录类型
+ */
+public class GroupCommitter<T> implements AutoCloseable {
+
+    private final String name;
+
+    /**
+     * 在一个事务中写入一组记录
+     */
+    private final Consumer<List<T>> groupWriter;
+
+    /**
+     * 在单独的事务中写入一条记录，整组写入失败后逐行重试时使用
+     */
+    private final Consumer<T> singleWriter;
+
+    private final long window;
+
+    private final int maxGroupSize;
+
+    /**
+     * 调用方等待所在的组提交完成的最长时间（毫秒）
+     */
+    private final long timeout;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final ExecutorService executor;
+
+    private final Object lock = new Object();
+
+    /**
+     * 等待提交的记录，受lock保护
+     */
+    private List<Entry<T>> pending = new ArrayList<>();
+
+    private boolean scheduled;
+
+    private final LongAdder groups = new LongAdder();
+
+    private final LongAdder records = new LongAdder();
+
+    private final LongAdder fallbacks = new LongAdder();
+
+    public GroupCommitter(String name, Consumer<List<T>> groupWriter, Consumer<T> singleWriter,
+                          long window, int maxGroupSize, int threads, long timeout) {
+        if (maxGroupSize <= 0) {
+            throw new IllegalArgumentException("组大小必须大于0: " + name);
+        }
+        this.name = name;
+        this.groupWriter = groupWriter;
+        this.singleWriter = singleWriter;
+        this.window = window;
+        this.maxGroupSize = maxGroupSize;
+        this.timeout = timeout;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads(name + "-group-timer"));
+        this.executor = Executors.newFixedThreadPool(threads, daemonThreads(name + "-group-commit"));
+    }
+
+    /**
+     * 提交一条记录，阻塞到所在的组提交完成
+     *
+     * @throws IllegalStateException 等待超过timeout毫秒；记录还在排队时已撤回、不会再写入，
+     *                               已开始提交时结果未知，由异常信息说明
+     * @throws RuntimeException 这一行写入失败的异常
+     */
+    public void submit(T record) {
+        Entry<T> entry = new Entry<>(record);
+        List<Entry<T>> full = null;
+        synchronized (lock) {
+            pending.add(entry);
+            if (pending.size() >= maxGroupSize) {
+                full = pending;
+                pending = new ArrayList<>();
+            } else if (!scheduled) {
+                scheduled = true;
+                try {
+                    scheduler.schedule(this::dispatchPending, window, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    scheduled = false;
+                    full = pending;
+                    pending = new ArrayList<>();
+                }
+            }
+        }
+        if (full != null) {
+            execute(full);
+        }
+        try {
+            join(entry.future, timeout);
+        } catch (TimeoutException e) {
+            boolean withdrawn;
+            synchronized (lock) {
+                withdrawn = pending.remove(entry);
+            }
+            throw new IllegalStateException(withdrawn
+                    ? "等待组提交超时，记录未写入: " + name
+                    : "等待组提交超时，记录可能已写入: " + name, e);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 已提交的组数
+     */
+    public long getGroupCount() {
+        return groups.sum();
+    }
+
+    /**
+     * 以组方式提交的记录数，与getGroupCount之比为平均组大小
+     */
+    public long getRecordCount() {
+        return records.sum();
+    }
+
+    /**
+     * 整组写入失败后改为逐行写入的次数
+     */
+    public long getFallbackCount() {
+        return fallbacks.sum();
+    }
+
+    /**
+     * 关闭提交器，已排队的记录仍会提交，不会让调用方一直等待
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        dispatchPending();
+        executor.shutdown();
+    }
+
+    private void dispatchPending() {
+        List<Entry<T>> group;
+        synchronized (lock) {
+            scheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            group = pending;
+            pending = new ArrayList<>();
+        }
+        execute(group);
+    }
+
+    private void execute(List<Entry<T>> group) {
+        try {
+            executor.execute(() -> commit(group));
+        } catch (RejectedExecutionException e) {
+            group.forEach(entry -> entry.future.completeExceptionally(e));
+        }
+    }
+
+    private void commit(List<Entry<T>> group) {
+        List<T> batch = new ArrayList<>(group.size());
+        group.forEach(entry -> batch.add(entry.record));
+        try {
+            groupWriter.accept(batch);
+            groups.increment();
+            records.add(group.size());
+            group.forEach(entry -> entry.future.complete(null));
+        } catch (RuntimeException e) {
+            if (group.size() == 1) {
+                group.get(0).future.completeExceptionally(e);
+                return;
+            }
+            fallbacks.increment();
+            for (Entry<T> entry : group) {
+                commitSingle(entry);
+            }
+        } catch (Throwable e) {
+            group.forEach(entry -> entry.future.completeExceptionally(e));
+        }
+    }
+
+    private void commitSingle(Entry<T> entry) {
+        try {
+            singleWriter.accept(entry.record);
+            entry.future.complete(null);
+        } catch (Throwable e) {
+            entry.future.completeExceptionally(e);
+        }
+    }
+
+    private static void join(CompletableFuture<Void> future, long timeout) throws TimeoutException {
+        try {
+            future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待组提交时线程被中断", e);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Entry<T> {
+
+        private final T record;
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Entry(T record) {
+            this.record = record;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.config;
+
+import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * MyBatis配置类
+ * Mapper扫描放在单独的配置类中，@WebMvcTest等切片测试不会加载Mapper
+ */
+@Configuration
+@MapperScan("com.example.staff.mapper")
+public class MyBatisConfig {
+}
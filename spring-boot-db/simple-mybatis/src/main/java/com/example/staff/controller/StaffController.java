@@ -44,6 +44,26 @@ public class StaffController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * 根据一组ID查询员工，如 /api/staff?ids=1,2,3
+     * 不存在的ID不返回
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<Map<String, Object>> getByIds(@RequestParam List<Integer> ids) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            List<Staff> staffList = staffService.getByIds(ids);
+            result.put("success", true);
+            result.put("data", staffList);
+            result.put("total", staffList.size());
+            result.put("message", "查询成功");
+        } catch (Exception e) {
+            result.put("success", false);
+            result.put("message", "查询失败: " + e.getMessage());
+        }
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * 根据员工编码查询
      */
@@ -0,0 +1,40 @@
+package com.example.staff.mapper;
+
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 行数计数器Mapper接口
+ * row_counter表为每张业务表保存多个槽位的计数，统计总数时对槽位求和，避免COUNT(*)全表扫描；
+ * 每次写入只更新其中一个槽位，并发写入分散在不同的行上
+ *
+ * tableName会拼接到SQL中，只允许传入RowCounterService中定义的表名
+ */
+public interface RowCounterMapper {
+
+    /**
+     * 查询表的行数（各槽位之和），计数器不存在时返回null
+     */
+    Long selectRowCount(@Param("tableName") String tableName);
+
+    /**
+     * 增减表某个槽位的行数，槽位不存在时返回0
+     */
+    int updateRowCount(@Param("tableName") String tableName, @Param("slot") int slot, @Param("delta") long delta);
+
+    /**
+     * 按表的实际行数校准计数，实际行数写入0号槽位，其余槽位清零，返回更新的槽位数
+     */
+    int reconcileRowCount(@Param("tableName") String tableName);
+
+    /**
+     * 查询表已存在的槽位
+     */
+    List<Integer> selectSlots(@Param("tableName") String tableName);
+
+    /**
+     * 创建计数为0的槽位
+     */
+    int insertSlot(@Param("tableName") String tableName, @Param("slot") int slot);
+}
@@ -4,6 +4,7 @@ import com.example.staff.domain.Gender;
 import com.example.staff.domain.Gender;
 import com.example.staff.domain.Staff;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.util.List;
 
@@ -28,11 +29,29 @@ public interface StaffMapper {
      */
     List<Staff> selectAll();
 
+    /**
+     * 根据一组ID查询员工，查不到的ID不返回
+     */
+    List<Staff> selectByPrimaryKeys(@Param("ids") List<Integer> ids);
+
     /**
      * 根据员工编码查询
      */
     Staff selectByCode(String code);
 
+    /**
+     * 查询已存在的员工编码
+     *
+     * @return codes中已存在于员工表的编码
+     */
+    List<String> selectExistingCodes(@Param("codes") List<String> codes);
+
+    /**
+     * 读取所有员工编码，逐行交给handler处理
+     * 用于重建编码存在性过滤器，不在内存中积累结果
+     */
+    void selectAllCodes(ResultHandler<String> handler);
+
     /**
      * 根据姓名模糊查询
      */
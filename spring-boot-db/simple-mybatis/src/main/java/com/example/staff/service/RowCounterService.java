@@ -0,0 +1,46 @@
+package com.example.staff.service;
+
+import java.util.List;
+
+/**
+ * 行数计数器服务接口
+ *
+ * 业务表的新增、删除在同一事务中增减row_counter中的计数，总数查询对各槽位求和，
+ * 不再对整张表执行COUNT(*)；计数器由RowCounterReconciler定期按实际行数校准
+ *
+ * 每张表的计数拆分为SLOTS个槽位，每次增减随机更新其中一个，
+ * 并发写入的事务分散在不同的行上，不会都排队等待同一行的行锁
+ */
+public interface RowCounterService {
+
+    String STAFF = "staff";
+
+    /**
+     * 维护计数的表
+     */
+    List<String> TABLES = List.of(STAFF);
+
+    /**
+     * 每张表的计数槽位数
+     */
+    int SLOTS = 8;
+
+    /**
+     * 查询表的行数（各槽位之和）
+     *
+     * @return 计数，计数器不存在时返回null，调用方应回退到COUNT(*)
+     */
+    Long getCount(String tableName);
+
+    /**
+     * 增减表的行数，随机选择一个槽位更新，在调用方的事务中执行
+     */
+    void increment(String tableName, long delta);
+
+    /**
+     * 按表的实际行数校准计数，缺少的槽位补齐后再校准
+     *
+     * @return 校准后的行数
+     */
+    Long reconcile(String tableName);
+}
@@ -0,0 +1,134 @@
+package com.example.staff.service;
+
+import com.example.config.BatchInsertExecutor;
+import com.example.config.ExistenceFilter;
+import com.example.config.GroupCommitter;
+import com.example.staff.domain.Staff;
+import com.example.staff.mapper.StaffMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 员工新增的组提交
+ *
+ * 开启group-commit.enabled后，并发的单个员工新增在group-commit.window毫秒内合并为一次多行INSERT和一次事务提交，
+ * 行数计数器也只更新一次。自增主键在提交后回填到各自的Staff对象中。
+ *
+ * 注意事项：
+ * 1. 一组中的员工在同一事务中提交，其中一行失败时整组回滚，再逐行单独提交，各调用方只收到自己那一行的错误
+ * 2. 调用方已处于事务中时不参与组提交，直接在调用方的事务中插入，保证与调用方的其他修改一起提交或回滚
+ * 3. 开启后单个请求最多多等待一个合并窗口
+ */
+@Component
+public class StaffGroupCommitter implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaffGroupCommitter.class);
+
+    private final StaffMapper staffMapper;
+
+    private final BatchInsertExecutor batchInsertExecutor;
+
+    private final RowCounterService rowCounterService;
+
+    private final ExistenceFilter staffCodeFilter;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+
+    private final long window;
+
+    private final int maxGroupSize;
+
+    private final int threads;
+
+    private final long timeout;
+
+    private GroupCommitter<Staff> committer;
+
+    public StaffGroupCommitter(StaffMapper staffMapper, BatchInsertExecutor batchInsertExecutor,
+                               RowCounterService rowCounterService,
+                               @Qualifier("staffCodeFilter") ExistenceFilter staffCodeFilter,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${group-commit.enabled:false}") boolean enabled,
+                               @Value("${group-commit.window:2}") long window,
+                               @Value("${group-commit.max-group-size:100}") int maxGroupSize,
+                               @Value("${group-commit.threads:2}") int threads,
+                               @Value("${group-commit.timeout:5000}") long timeout) {
+        this.staffMapper = staffMapper;
+        this.batchInsertExecutor = batchInsertExecutor;
+        this.rowCounterService = rowCounterService;
+        this.staffCodeFilter = staffCodeFilter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.window = window;
+        this.maxGroupSize = maxGroupSize;
+        this.threads = threads;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        committer = new GroupCommitter<>("staff", this::insertInTransaction, staff -> {
+            // 整组回滚后，回填的主键已无效
+            staff.setId(null);
+            insertInTransaction(Collections.singletonList(staff));
+        }, window, maxGroupSize, threads, timeout);
+        logger.info("员工新增组提交已开启，合并窗口: {}ms，最大组大小: {}", window, maxGroupSize);
+    }
+
+    /**
+     * 关闭时提交已排队的员工
+     */
+    @Override
+    public void destroy() {
+        if (committer != null) {
+            committer.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return committer != null;
+    }
+
+    /**
+     * 插入员工
+     * 开启组提交且调用方不在事务中时，与并发的其他新增合并提交，返回时已提交；
+     * 否则在调用方的事务中插入，没有事务时单独开启一个
+     *
+     * @return 插入的行数
+     */
+    public int insert(Staff staff) {
+        if (committer != null && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            committer.submit(staff);
+            return 1;
+        }
+        return insertInTransaction(Collections.singletonList(staff));
+    }
+
+    private int insertInTransaction(List<Staff> staffList) {
+        Integer rows = transactionTemplate.execute(status -> {
+            int inserted = staffList.size() == 1
+                    ? staffMapper.insert(staffList.get(0))
+                    : batchInsertExecutor.insert(StaffMapper.class, staffList, StaffMapper::insert);
+            rowCounterService.increment(RowCounterService.STAFF, inserted);
+            staffList.forEach(staff -> staffCodeFilter.putAfterCommit(staff.getCode()));
+            return inserted;
+        });
+        return rows != null ? rows : 0;
+    }
+}
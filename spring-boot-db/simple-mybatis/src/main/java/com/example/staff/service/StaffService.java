@@ -15,6 +15,13 @@ public interface StaffService {
      */
     Staff getById(Integer id);
 
+    /**
+     * 根据一组ID查询员工
+     *
+     * @return 按ids的顺序排列，重复的ID只返回一次，不存在的ID不返回
+     */
+    List<Staff> getByIds(List<Integer> ids);
+
     /**
      * 根据员工编码查询
      */
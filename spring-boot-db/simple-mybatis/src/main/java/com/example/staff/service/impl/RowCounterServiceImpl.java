@@ -0,0 +1,76 @@
+package com.example.staff.service.impl;
+
+import com.example.staff.mapper.RowCounterMapper;
+import com.example.staff.service.RowCounterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 行数计数器服务实现类
+ */
+@Service
+@Transactional
+public class RowCounterServiceImpl implements RowCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RowCounterServiceImpl.class);
+
+    @Autowired
+    private RowCounterMapper rowCounterMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Long getCount(String tableName) {
+        return rowCounterMapper.selectRowCount(checkTable(tableName));
+    }
+
+    @Override
+    public void increment(String tableName, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        checkTable(tableName);
+        int slot = ThreadLocalRandom.current().nextInt(SLOTS);
+        if (rowCounterMapper.updateRowCount(tableName, slot, delta) > 0) {
+            return;
+        }
+        // 槽位未创建（例如旧的建表脚本只有一行计数），改为更新0号槽位
+        if (slot == 0 || rowCounterMapper.updateRowCount(tableName, 0, delta) == 0) {
+            logger.warn("计数器不存在，等待校准时创建: {}", tableName);
+        }
+    }
+
+    @Override
+    public Long reconcile(String tableName) {
+        checkTable(tableName);
+        if (rowCounterMapper.reconcileRowCount(tableName) < SLOTS) {
+            List<Integer> existing = rowCounterMapper.selectSlots(tableName);
+            for (int slot = 0; slot < SLOTS; slot++) {
+                if (existing.contains(slot)) {
+                    continue;
+                }
+                try {
+                    rowCounterMapper.insertSlot(tableName, slot);
+                } catch (DuplicateKeyException e) {
+                    // 其他实例已同时创建
+                }
+            }
+            logger.info("已创建计数器槽位: {}", tableName);
+            rowCounterMapper.reconcileRowCount(tableName);
+        }
+        return rowCounterMapper.selectRowCount(tableName);
+    }
+
+    private static String checkTable(String tableName) {
+        if (!TABLES.contains(tableName)) {
+            throw new IllegalArgumentException("不支持计数的表: " + tableName);
+        }
+        return tableName;
+    }
+}
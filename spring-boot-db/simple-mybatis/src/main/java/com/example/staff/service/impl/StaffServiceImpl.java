@@ -1,15 +1,30 @@
 package com.example.staff.service.impl;
 
+import com.example.config.BatchInsertExecutor;
+import com.example.config.BatchLoader;
+import com.example.config.ExistenceFilter;
+import com.example.config.SingleFlight;
 import com.example.staff.domain.Gender;
 import com.example.staff.domain.Staff;
 import com.example.staff.mapper.StaffMapper;
+import com.example.staff.service.RowCounterService;
+import com.example.staff.service.StaffGroupCommitter;
 import com.example.staff.service.StaffService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * 员工服务实现类
@@ -18,25 +33,80 @@ import java.util.List;
 @Transactional
 public class StaffServiceImpl implements StaffService {
 
+    /**
+     * 批量新增时每次IN查询检查的员工编码数
+     */
+    private static final int CODE_CHECK_CHUNK_SIZE = 1000;
+
+    /**
+     * 批量查询员工时一次最多查询的ID数
+     */
+    private static final int MAX_IDS = 1000;
+
     @Autowired
     private StaffMapper staffMapper;
 
+    @Autowired
+    private RowCounterService rowCounterService;
+
+    @Autowired
+    private BatchInsertExecutor batchInsertExecutor;
+
+    /**
+     * 员工编码存在性过滤器，只在新增前的重复检查中使用，判定不存在的编码不查询数据库，
+     * 漏判时由唯一约束拒绝；按编码查询和存在性检查不经过过滤器，其他实例写入的编码不会被判定为不存在
+     */
+    @Autowired
+    @Qualifier("staffCodeFilter")
+    private ExistenceFilter staffCodeFilter;
+
+    @Autowired
+    private StaffGroupCommitter staffGroupCommitter;
+
+    /**
+     * 相同ID、相同编码的并发查询合并为一次数据库查询，调用方不应修改返回的对象
+     */
+    private final SingleFlight<Integer, Staff> staffByIdFlight = new SingleFlight<>();
+
+    private final SingleFlight<String, Staff> staffByCodeFlight = new SingleFlight<>();
+
+    /**
+     * 把并发的按ID查询合并为IN查询
+     */
+    @Autowired
+    @Qualifier("staffByIdLoader")
+    private BatchLoader<Integer, Staff> staffByIdLoader;
+
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Staff getById(Integer id) {
         if (id == null) {
             return null;
         }
-        return staffMapper.selectByPrimaryKey(id);
+        return staffByIdFlight.execute(id, staffByIdLoader::load);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<Staff> getByIds(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (ids.size() > MAX_IDS) {
+            throw new IllegalArgumentException("一次最多查询" + MAX_IDS + "个员工");
+        }
+        List<Integer> distinctIds = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        Map<Integer, Staff> staffById = staffByIdLoader.loadAll(distinctIds);
+        return distinctIds.stream().map(staffById::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Staff getByCode(String code) {
         if (code == null || code.trim().isEmpty()) {
             return null;
         }
-        return staffMapper.selectByCode(code);
+        return staffByCodeFlight.execute(code, staffMapper::selectByCode);
     }
 
     @Override
@@ -85,7 +155,9 @@ public class StaffServiceImpl implements StaffService {
     @Override
     @Transactional(readOnly = true)
     public int getTotalCount() {
-        return staffMapper.countAll();
+        // 读取计数器，计数器不存在时回退到COUNT(*)
+        Long count = rowCounterService.getCount(RowCounterService.STAFF);
+        return count != null ? count.intValue() : staffMapper.countAll();
     }
 
     @Override
@@ -97,15 +169,20 @@ public class StaffServiceImpl implements StaffService {
         return staffMapper.countByCondition(condition);
     }
 
+    /**
+     * SUPPORTS不主动开启事务：开启组提交时在StaffGroupCommitter的组事务中插入，
+     * 等待合并期间不占用数据库连接；未开启时由StaffGroupCommitter单独开启事务
+     */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public int addStaff(Staff staff) {
         if (staff == null) {
             throw new IllegalArgumentException("员工信息不能为空");
         }
         validateStaff(staff);
         
-        // 检查员工编码是否已存在
-        if (isCodeExists(staff.getCode())) {
+        // 检查员工编码是否已存在，过滤器判定不存在时不查询数据库
+        if (staffCodeFilter.mightContain(staff.getCode()) && staffMapper.selectByCode(staff.getCode()) != null) {
             throw new IllegalArgumentException("员工编码已存在: " + staff.getCode());
         }
         
@@ -114,7 +191,12 @@ public class StaffServiceImpl implements StaffService {
         staff.setCreateTime(now);
         staff.setModifyTime(now);
         
-        return staffMapper.insert(staff);
+        try {
+            return staffGroupCommitter.insert(staff);
+        } catch (DuplicateKeyException e) {
+            // 过滤器未包含其他实例写入的编码、同一组中有相同编码，或检查后被其他请求抢先写入时，由唯一约束拒绝
+            throw new IllegalArgumentException("员工编码已存在: " + staff.getCode(), e);
+        }
     }
 
     @Override
@@ -137,7 +219,10 @@ public class StaffServiceImpl implements StaffService {
             staff.setModifyTime(now);
         }
         
-        return staffMapper.insertSelective(staff);
+        int rows = staffMapper.insertSelective(staff);
+        rowCounterService.increment(RowCounterService.STAFF, rows);
+        staffCodeFilter.putAfterCommit(staff.getCode());
+        return rows;
     }
 
     @Override
@@ -147,20 +232,32 @@ public class StaffServiceImpl implements StaffService {
         }
         
         Date now = new Date();
+        Set<String> codes = new HashSet<>();
         for (Staff staff : staffList) {
             validateStaff(staff);
             
-            // 检查员工编码是否已存在
-            if (isCodeExists(staff.getCode())) {
-                throw new IllegalArgumentException("员工编码已存在: " + staff.getCode());
+            // 检查批次内员工编码是否重复
+            if (!codes.add(staff.getCode())) {
+                throw new IllegalArgumentException("员工编码重复: " + staff.getCode());
             }
             
             // 设置创建时间和修改时间
             staff.setCreateTime(now);
             staff.setModifyTime(now);
         }
+        checkCodesNotExist(new ArrayList<>(codes));
         
-        return staffMapper.batchInsert(staffList);
+        // 使用BATCH执行器分批执行单行INSERT，避免拼接过长的SQL
+        int rows;
+        try {
+            rows = batchInsertExecutor.insert(StaffMapper.class, staffList, StaffMapper::insert);
+        } catch (DuplicateKeyException e) {
+            // 过滤器未包含其他实例写入的编码时，由唯一约束拒绝，整批回滚
+            throw new IllegalArgumentException("员工编码已存在", e);
+        }
+        rowCounterService.increment(RowCounterService.STAFF, rows);
+        codes.forEach(staffCodeFilter::putAfterCommit);
+        return rows;
     }
 
     @Override
@@ -179,7 +276,15 @@ public class StaffServiceImpl implements StaffService {
         // 设置修改时间
         staff.setModifyTime(new Date());
         
-        return staffMapper.updateByPrimaryKey(staff);
+        int rows;
+        try {
+            rows = staffMapper.updateByPrimaryKey(staff);
+        } catch (DuplicateKeyException e) {
+            // 检查后被其他请求抢先写入相同编码时，由唯一约束拒绝
+            throw new IllegalArgumentException("员工编码已存在: " + staff.getCode(), e);
+        }
+        staffCodeFilter.putAfterCommit(staff.getCode());
+        return rows;
     }
 
     @Override
@@ -196,7 +301,15 @@ public class StaffServiceImpl implements StaffService {
         // 设置修改时间
         staff.setModifyTime(new Date());
         
-        return staffMapper.updateByPrimaryKeySelective(staff);
+        int rows;
+        try {
+            rows = staffMapper.updateByPrimaryKeySelective(staff);
+        } catch (DuplicateKeyException e) {
+            // 检查后被其他请求抢先写入相同编码时，由唯一约束拒绝
+            throw new IllegalArgumentException("员工编码已存在: " + staff.getCode(), e);
+        }
+        staffCodeFilter.putAfterCommit(staff.getCode());
+        return rows;
     }
 
     @Override
@@ -204,7 +317,9 @@ public class StaffServiceImpl implements StaffService {
         if (id == null) {
             throw new IllegalArgumentException("员工ID不能为空");
         }
-        return staffMapper.deleteByPrimaryKey(id);
+        int rows = staffMapper.deleteByPrimaryKey(id);
+        rowCounterService.increment(RowCounterService.STAFF, -rows);
+        return rows;
     }
 
     @Override
@@ -212,7 +327,9 @@ public class StaffServiceImpl implements StaffService {
         if (ids == null || ids.isEmpty()) {
             return 0;
         }
-        return staffMapper.batchDelete(ids);
+        int rows = staffMapper.batchDelete(ids);
+        rowCounterService.increment(RowCounterService.STAFF, -rows);
+        return rows;
     }
 
     @Override
@@ -234,6 +351,22 @@ public class StaffServiceImpl implements StaffService {
         return existingStaff != null && !existingStaff.getId().equals(excludeId);
     }
 
+    /**
+     * 检查员工编码是否已存在
+     * 过滤器判定不存在的编码不再查询，漏判的编码在插入时由唯一约束拒绝；
+     * 其余编码每CODE_CHECK_CHUNK_SIZE个执行一次IN查询，查询次数与批次数成正比，而不是与员工数成正比
+     */
+    private void checkCodesNotExist(List<String> codes) {
+        List<String> candidates = codes.stream().filter(staffCodeFilter::mightContain).collect(Collectors.toList());
+        for (int from = 0; from < candidates.size(); from += CODE_CHECK_CHUNK_SIZE) {
+            List<String> chunk = candidates.subList(from, Math.min(from + CODE_CHECK_CHUNK_SIZE, candidates.size()));
+            List<String> existingCodes = staffMapper.selectExistingCodes(chunk);
+            if (!existingCodes.isEmpty()) {
+                throw new IllegalArgumentException("员工编码已存在: " + String.join(", ", existingCodes));
+            }
+        }
+    }
+
     /**
      * 验证员工信息
      */
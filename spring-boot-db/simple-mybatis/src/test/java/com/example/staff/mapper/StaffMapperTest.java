@@ -8,6 +8,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
@@ -33,6 +34,14 @@ class StaffMapperTest {
         assertEquals("张三", staff.getName());
     }
 
+    @Test
+    void testSelectByPrimaryKeys() {
+        List<Staff> staffList = staffMapper.selectByPrimaryKeys(Arrays.asList(1, 3, 9999));
+        assertEquals(2, staffList.size());
+        assertTrue(staffList.stream().anyMatch(staff -> "EMP001".equals(staff.getCode())));
+        assertTrue(staffList.stream().anyMatch(staff -> "EMP003".equals(staff.getCode())));
+    }
+
     @Test
     void testSelectByCode() {
         Staff staff = staffMapper.selectByCode("EMP002");
@@ -41,6 +50,21 @@ class StaffMapperTest {
         assertEquals(30, staff.getAge());
     }
 
+    @Test
+    void testSelectExistingCodes() {
+        List<String> codes = staffMapper.selectExistingCodes(Arrays.asList("EMP001", "EMP003", "NOT_EXISTS"));
+        assertEquals(2, codes.size());
+        assertTrue(codes.containsAll(Arrays.asList("EMP001", "EMP003")));
+    }
+
+    @Test
+    void testSelectAllCodes() {
+        List<String> codes = new ArrayList<>();
+        staffMapper.selectAllCodes(context -> codes.add(context.getResultObject()));
+        assertTrue(codes.size() >= 5);
+        assertTrue(codes.containsAll(Arrays.asList("EMP001", "EMP003")));
+    }
+
     @Test
     void testSelectAll() {
         List<Staff> staffList = staffMapper.selectAll();
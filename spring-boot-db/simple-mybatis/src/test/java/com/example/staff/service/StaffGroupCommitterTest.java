@@ -0,0 +1,131 @@
+package com.example.staff.service;
+
+import com.example.staff.domain.Staff;
+import com.example.staff.mapper.StaffMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StaffGroupCommitter测试类
+ * 开启组提交，使用独立的H2数据库，组提交在自己的线程中提交，不随测试回滚
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:group-commit-test;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+        "group-commit.enabled=true",
+        "group-commit.window=60000",
+        "group-commit.max-group-size=3"
+})
+@ActiveProfiles("test")
+class StaffGroupCommitterTest {
+
+    @Autowired
+    private StaffGroupCommitter staffGroupCommitter;
+
+    @Autowired
+    private StaffMapper staffMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testGroupInsertBackfillsIds() throws Exception {
+        List<Staff> staffList = List.of(createStaff("GROUP001"), createStaff("GROUP002"), createStaff("GROUP003"));
+
+        // 达到组大小后一次提交
+        List<Future<?>> results = submitConcurrently(staffList);
+        for (Future<?> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+
+        for (Staff staff : staffList) {
+            assertNotNull(staff.getId());
+            assertEquals(staff.getId(), staffMapper.selectByCode(staff.getCode()).getId());
+        }
+    }
+
+    @Test
+    void testFallbackReassignsIds() throws Exception {
+        insertInOwnTransaction(createStaff("FALLBACK002"));
+        List<Staff> staffList = List.of(createStaff("FALLBACK001"), createStaff("FALLBACK002"),
+                createStaff("FALLBACK003"));
+
+        // 编码重复的一行导致整组回滚，再逐行提交
+        List<Future<?>> results = submitConcurrently(staffList);
+        results.get(0).get(5, TimeUnit.SECONDS);
+        ExecutionException error = assertThrows(ExecutionException.class, () -> results.get(1).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DuplicateKeyException.class, error.getCause());
+        results.get(2).get(5, TimeUnit.SECONDS);
+
+        // 整组回滚时回填的主键已清除，逐行提交后重新回填为实际写入的主键
+        assertEquals(staffList.get(0).getId(), staffMapper.selectByCode("FALLBACK001").getId());
+        assertEquals(staffList.get(2).getId(), staffMapper.selectByCode("FALLBACK003").getId());
+    }
+
+    @Test
+    void testCallerTransactionBypassesGrouping() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Staff staff = createStaff("TX001");
+
+        // 调用方已在事务中时直接插入，不等待合并窗口，并随调用方的事务回滚
+        transactionTemplate.executeWithoutResult(status -> {
+            assertEquals(1, staffGroupCommitter.insert(staff));
+            assertNotNull(staffMapper.selectByCode("TX001"));
+            status.setRollbackOnly();
+        });
+
+        assertNull(staffMapper.selectByCode("TX001"));
+    }
+
+    private List<Future<?>> submitConcurrently(List<Staff> staffList) {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(staffList.size());
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (Staff staff : staffList) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    staffGroupCommitter.insert(staff);
+                    return null;
+                }));
+            }
+            start.countDown();
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 在事务中插入，不参与组提交
+     */
+    private void insertInOwnTransaction(Staff staff) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> staffGroupCommitter.insert(staff));
+    }
+
+    private Staff createStaff(String code) {
+        Staff staff = new Staff();
+        staff.setCode(code);
+        staff.setName("组提交员工" + code);
+        staff.setAge(30);
+        staff.setCreateTime(new Date());
+        staff.setModifyTime(new Date());
+        return staff;
+    }
+}
@@ -5,6 +5,7 @@ import com.example.staff.domain.Staff;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +25,9 @@ class StaffServiceTest {
     @Autowired
     private StaffService staffService;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     void testGetById() {
         Staff staff = staffService.getById(1);
@@ -38,6 +42,15 @@ class StaffServiceTest {
         assertNull(staff);
     }
 
+    @Test
+    void testGetByIds() {
+        List<Staff> staffList = staffService.getByIds(Arrays.asList(3, 1, 9999, 3));
+        assertEquals(2, staffList.size());
+        // 按请求的顺序返回，重复和不存在的ID不返回
+        assertEquals("EMP003", staffList.get(0).getCode());
+        assertEquals("EMP001", staffList.get(1).getCode());
+    }
+
     @Test
     void testGetByCode() {
         Staff staff = staffService.getByCode("EMP002");
@@ -186,6 +199,29 @@ class StaffServiceTest {
         assertNotNull(inserted2);
     }
 
+    @Test
+    void testBatchAddStaffWithDuplicateCode() {
+        Staff staff1 = new Staff();
+        staff1.setCode("BATCH_DUP001");
+        staff1.setName("批量重复员工1");
+
+        Staff staff2 = new Staff();
+        staff2.setCode("BATCH_DUP001");
+        staff2.setName("批量重复员工2");
+
+        // 批次内编码重复
+        assertThrows(IllegalArgumentException.class, () -> {
+            staffService.batchAddStaff(Arrays.asList(staff1, staff2));
+        });
+
+        // 编码已存在
+        staff2.setCode("EMP001");
+        assertThrows(IllegalArgumentException.class, () -> {
+            staffService.batchAddStaff(Arrays.asList(staff1, staff2));
+        });
+        assertNull(staffService.getByCode("BATCH_DUP001"));
+    }
+
     @Test
     void testUpdateStaffSelective() {
         // 先添加一个员工
@@ -281,6 +317,21 @@ class StaffServiceTest {
         assertFalse(notExists);
     }
 
+    @Test
+    void testCodeWrittenOutsideServiceIsFound() {
+        // 直接写入数据库的编码不在过滤器中，按编码查询和存在性检查仍然查询数据库
+        jdbcTemplate.update("INSERT INTO staff (code, name, age) VALUES ('EXT001', '外部员工', 30)");
+        
+        assertNotNull(staffService.getByCode("EXT001"));
+        assertTrue(staffService.isCodeExists("EXT001"));
+        
+        // 新增时过滤器漏判，由唯一约束拒绝
+        Staff staff = new Staff();
+        staff.setCode("EXT001");
+        staff.setName("重复员工");
+        assertThrows(IllegalArgumentException.class, () -> staffService.addStaff(staff));
+    }
+
     @Test
     void testIsCodeExistsWithExcludeId() {
         // 获取一个现有员工
@@ -5,3 +5,7 @@ INSERT INTO staff (code, name, age, gender, phone, email, create_time, modify_ti
 ('EMP003', '王五', 28, '0', '13800138003', 'wangwu@example.com', NOW(), NOW()),
 ('EMP004', '赵六', 32, '1', '13800138004', 'zhaoliu@example.com', NOW(), NOW()),
 ('EMP005', '钱七', 26, '0', '13800138005', 'qianqi@example.com', NOW(), NOW());
+
+-- 初始化行数计数器：实际行数写入0号槽位，其余7个槽位为0
+INSERT INTO row_counter (table_name, slot, row_count, update_time) SELECT 'staff', 0, COUNT(*), NOW() FROM staff;
+INSERT INTO row_counter (table_name, slot, row_count, update_time) VALUES ('staff', 1, 0, NOW()), ('staff', 2, 0, NOW()), ('staff', 3, 0, NOW()), ('staff', 4, 0, NOW()), ('staff', 5, 0, NOW()), ('staff', 6, 0, NOW()), ('staff', 7, 0, NOW());
@@ -13,6 +13,17 @@ CREATE TABLE staff (
     modify_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '修改时间'
 );
 
+-- 创建行数计数器表
+DROP TABLE IF EXISTS row_counter;
+
+CREATE TABLE row_counter (
+    table_name VARCHAR(64) NOT NULL COMMENT '表名',
+    slot INT NOT NULL COMMENT '槽位，总数为各槽位之和',
+    row_count BIGINT NOT NULL DEFAULT 0 COMMENT '行数',
+    update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (table_name, slot)
+);
+
 -- 创建索引
 CREATE INDEX idx_staff_code ON staff(code);
 CREATE INDEX idx_staff_name ON staff(name);